@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.exception.AccountException;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Trip switch for errors that fail every request of the account.
+ *
+ * When the API rejects the credentials or the IP address, all following
+ * requests fail with {@link AccountException} without contacting the API.
+ * Once per probe interval a single request is let through to check whether
+ * the account works again.
+ *
+ * @author Lennar Kallas
+ */
+class AccountGuard {
+
+    private final long probeIntervalNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Error that tripped the switch, null if requests are allowed.
+     */
+    private volatile ResponseCode error;
+    private volatile long nextProbeAt;
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    AccountGuard(long probeIntervalNanos, LongSupplier clock) {
+        this.probeIntervalNanos = probeIntervalNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a request may be made.
+     *
+     * @return true if the request is the probe, false if requests are
+     * allowed.
+     * @throws AccountException if the switch is tripped and it's not time to
+     * probe yet.
+     */
+    boolean acquire() throws AccountException {
+
+        ResponseCode code = error;
+        if (code == null) {
+            return false;
+        }
+        if (clock.getAsLong() - nextProbeAt >= 0 && probing.compareAndSet(false, true)) {
+            return true;
+        }
+        throw new AccountException(code);
+    }
+
+    /**
+     * Records the response of a request. Trips the switch on account errors
+     * and resets it on any other reply of the API.
+     *
+     * @param response response from the API server.
+     * @param probe whether the request was the probe.
+     */
+    void record(MessenteResponse response, boolean probe) {
+        record(response.getResponseCode(), response.getHttpResponseCode(), probe);
+    }
+
+    /**
+     * Records the reply of a request. Trips the switch on account errors and
+     * resets it on any other reply of the API.
+     *
+     * @param code response code, null if the request succeeded.
+     * @param httpCode HTTP status code of the reply.
+     * @param probe whether the request was the probe.
+     */
+    void record(ResponseCode code, int httpCode, boolean probe) {
+
+        if (code == ResponseCode.ACCESS_RESTRICTED || code == ResponseCode.INVALID_IP) {
+            if (probeIntervalNanos > 0) {
+                nextProbeAt = clock.getAsLong() + probeIntervalNanos;
+                error = code;
+            }
+        } else if (error != null && httpCode == 200) {
+            error = null;
+        } else if (probe) {
+            nextProbeAt = clock.getAsLong() + probeIntervalNanos;
+        }
+        if (probe) {
+            probing.set(false);
+        }
+    }
+
+    /**
+     * Releases the probe after a request that got no reply, the next probe
+     * is made after the interval.
+     */
+    void fail() {
+        nextProbeAt = clock.getAsLong() + probeIntervalNanos;
+        probing.set(false);
+    }
+
+    /**
+     * Gets the error that tripped the switch.
+     *
+     * @return ACCESS_RESTRICTED or INVALID_IP, null if requests are allowed.
+     */
+    ResponseCode getError() {
+        return error;
+    }
+
+    /**
+     * Allows requests again.
+     */
+    void reset() {
+        error = null;
+        probing.set(false);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.options.MessenteOptions;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of the Messente account balance.
+ *
+ * Concurrent balance checks share a single API request: the first caller
+ * makes the request and the others wait for its response. A successful
+ * balance is then kept for the configured time to live, so balance checks
+ * made in a burst cost one round trip. With zero time to live requests are
+ * only coalesced and every check after a completed request makes a new one.
+ * Unsuccessful responses are returned but not cached.
+ *
+ * Note that the balance is updated by Messente a few seconds after sending,
+ * so the time to live should be kept short.
+ *
+ * @author Lennar Kallas
+ */
+public class BalanceCache {
+
+    /**
+     * Loads the account balance.
+     */
+    interface Loader {
+
+        MessenteResponse load() throws MessenteException;
+    }
+
+    /**
+     * Cached balance.
+     */
+    private static final class Entry {
+
+        private final MessenteResponse response;
+        private final BigDecimal balance;
+        private final long expiresAt;
+
+        private Entry(MessenteResponse response, BigDecimal balance, long expiresAt) {
+            this.response = response;
+            this.balance = balance;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<MessenteResponse>> load
+            = new AtomicReference<>();
+
+    /**
+     * Creates balance cache with default options.
+     *
+     * @param messente Messente API client used to fetch the balance.
+     * @param ttl how long the balance is considered fresh, 0 to only share
+     * concurrent requests.
+     * @param unit time unit of ttl.
+     */
+    public BalanceCache(Messente messente, long ttl, TimeUnit unit) {
+        this(messente, null, ttl, unit);
+    }
+
+    /**
+     * Creates balance cache.
+     *
+     * @param messente Messente API client used to fetch the balance.
+     * @param options options used for API calls, null for default options.
+     * @param ttl how long the balance is considered fresh, 0 to only share
+     * concurrent requests.
+     * @param unit time unit of ttl.
+     */
+    public BalanceCache(final Messente messente, final MessenteOptions options,
+            long ttl, TimeUnit unit) {
+
+        this(() -> messente.getBalance(options), unit.toNanos(ttl), System::nanoTime);
+    }
+
+    BalanceCache(Loader loader, long ttlNanos, LongSupplier clock) {
+        this.loader = loader;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets account balance. Makes an API request only if the balance is not
+     * cached and no other thread is requesting it already.
+     *
+     * @return MessenteResponse object with account balance.
+     * @throws MessenteException if HTTP request fails.
+     */
+    public MessenteResponse getBalance() throws MessenteException {
+
+        Entry cached = entry.get();
+        if (cached != null && clock.getAsLong() - cached.expiresAt < 0) {
+            return cached.response;
+        }
+        return load();
+    }
+
+    /**
+     * Gets account balance as a number.
+     *
+     * @return account balance in account currency.
+     * @throws MessenteException if HTTP request fails or the API returns an
+     * error.
+     */
+    public BigDecimal getBalanceAmount() throws MessenteException {
+
+        Entry cached = entry.get();
+        if (cached != null && clock.getAsLong() - cached.expiresAt < 0) {
+            return cached.balance;
+        }
+
+        MessenteResponse response = load();
+        cached = entry.get();
+
+        // Reuse the parsed balance unless the response was not cached
+        if (cached != null && cached.response == response) {
+            return cached.balance;
+        }
+        if (!response.isSuccess()) {
+            throw new MessenteException("Balance not available! "
+                    + response.getResponseMessage());
+        }
+        return parse(response);
+    }
+
+    /**
+     * Removes the cached balance, e.g. after sending messages.
+     */
+    public void invalidate() {
+        entry.set(null);
+    }
+
+    /**
+     * Loads the balance, waiting for the request already made by another
+     * thread if there is one.
+     */
+    private MessenteResponse load() throws MessenteException {
+
+        CompletableFuture<MessenteResponse> future = new CompletableFuture<>();
+
+        while (!load.compareAndSet(null, future)) {
+            CompletableFuture<MessenteResponse> running = load.get();
+            if (running != null) {
+                return await(running);
+            }
+        }
+
+        try {
+            MessenteResponse response = loader.load();
+
+            if (response != null && response.isSuccess()) {
+                entry.set(new Entry(response, parse(response), clock.getAsLong() + ttlNanos));
+            }
+            future.complete(response);
+            return response;
+        } catch (MessenteException | RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            load.compareAndSet(future, null);
+        }
+    }
+
+    private static BigDecimal parse(MessenteResponse response) throws MessenteException {
+        try {
+            return new BigDecimal(response.getResult().trim());
+        } catch (NumberFormatException ex) {
+            throw new MessenteException("Invalid balance: " + response.getRawResponse(), ex);
+        }
+    }
+
+    private static MessenteResponse await(CompletableFuture<MessenteResponse> future)
+            throws MessenteException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MessenteException("Interrupted while waiting for balance!", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MessenteException) {
+                throw (MessenteException) ex.getCause();
+            }
+            throw new MessenteException("Failed to load balance!", ex.getCause());
+        }
+    }
+}
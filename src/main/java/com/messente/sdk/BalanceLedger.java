@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.options.MessenteOptions;
+import com.messente.sdk.response.MessenteResponse;
+import com.messente.sdk.response.PriceTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Local ledger of the Messente account balance.
+ *
+ * The ledger is seeded with the account balance by {@link #reconcile()} and
+ * the estimated cost of every message is debited from it before the message
+ * is sent. Messages that would exceed the balance are rejected locally
+ * instead of failing at the API. Debits are a compare-and-set of a single
+ * counter, so the ledger can be shared by many sending threads without
+ * locking.
+ *
+ * The balance on Messente's side is updated a few seconds after sending, so
+ * {@link #reconcile()} should be called periodically to correct the estimate
+ * (see {@link #scheduleReconcile}). Debits younger than the settle window
+ * are assumed to be missing from the fetched balance and are subtracted from
+ * it, older debits are assumed to be included.
+ *
+ * Amounts are in micro units of the account currency, see
+ * {@link PriceTable#MICROS}.
+ *
+ * @author Lennar Kallas
+ */
+public class BalanceLedger {
+
+    /**
+     * Sends an SMS.
+     */
+    interface Sender {
+
+        MessenteResponse send(String from, String to, String text, MessenteOptions options)
+                throws MessenteException;
+    }
+
+    /**
+     * Default time after which a debit is assumed to be included in the
+     * balance returned by the API.
+     */
+    private static final long DEFAULT_SETTLE_WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    private final BalanceCache.Loader balance;
+    private final Sender sender;
+    private final CampaignCostEstimator estimator;
+    private final long settleWindowNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Total of all debits minus refunds.
+     */
+    private final AtomicLong spent = new AtomicLong();
+
+    /**
+     * Debits and refunds not settled yet, in the order they were made.
+     */
+    private final ConcurrentLinkedQueue<Entry> unsettled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Total of debits and refunds older than the settle window. Guarded by
+     * {@link #unsettled}.
+     */
+    private long settled;
+
+    /**
+     * Value of {@link #spent} at which the balance is used up: account balance
+     * plus the settled debits.
+     */
+    private volatile long limit;
+
+    private static final class Entry {
+
+        private final long time;
+        private final long micros;
+
+        private Entry(long time, long micros) {
+            this.time = time;
+            this.micros = micros;
+        }
+    }
+
+    /**
+     * Creates balance ledger. The ledger is empty until {@link #reconcile()}
+     * is called.
+     *
+     * @param messente Messente API client used to fetch the balance and send
+     * messages.
+     * @param estimator estimator of message costs.
+     */
+    public BalanceLedger(final Messente messente, CampaignCostEstimator estimator) {
+        this(messente, estimator, DEFAULT_SETTLE_WINDOW, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates balance ledger. The ledger is empty until {@link #reconcile()}
+     * is called.
+     *
+     * @param messente Messente API client used to fetch the balance and send
+     * messages.
+     * @param estimator estimator of message costs.
+     * @param settleWindow time after which a debit is assumed to be included
+     * in the balance returned by the API.
+     * @param unit time unit of settleWindow.
+     */
+    public BalanceLedger(final Messente messente, CampaignCostEstimator estimator,
+            long settleWindow, TimeUnit unit) {
+
+        this(messente::getBalance, messente::sendSMS, estimator,
+                unit.toNanos(settleWindow), System::nanoTime);
+    }
+
+    BalanceLedger(BalanceCache.Loader balance, Sender sender,
+            CampaignCostEstimator estimator, long settleWindowNanos, LongSupplier clock) {
+
+        this.balance = balance;
+        this.sender = sender;
+        this.estimator = estimator;
+        this.settleWindowNanos = settleWindowNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Fetches the account balance and resets the ledger to it. Debits younger
+     * than the settle window stay debited.
+     *
+     * @return available balance in micro units.
+     * @throws MessenteException if HTTP request fails or the API returns an
+     * error.
+     */
+    public long reconcile() throws MessenteException {
+
+        MessenteResponse response = balance.load();
+
+        if (response == null || !response.isSuccess()) {
+            throw new MessenteException("Balance not available! "
+                    + (response != null ? response.getResponseMessage() : ""));
+        }
+
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(response.getResult().trim());
+        } catch (NumberFormatException ex) {
+            throw new MessenteException("Invalid balance: " + response.getRawResponse(), ex);
+        }
+
+        long settledBefore;
+        synchronized (unsettled) {
+            settledBefore = settle(clock.getAsLong() - settleWindowNanos);
+        }
+
+        limit = amount.movePointRight(6).setScale(0, RoundingMode.DOWN).longValue()
+                + settledBefore;
+        return getAvailableMicros();
+    }
+
+    /**
+     * Reconciles the ledger periodically. Failed reconciliations are ignored
+     * and the ledger keeps its current estimate.
+     *
+     * @param executor executor that runs reconciliations.
+     * @param period time between reconciliations.
+     * @param unit time unit of period.
+     * @return future that can be used to stop reconciling.
+     */
+    public ScheduledFuture<?> scheduleReconcile(ScheduledExecutorService executor,
+            long period, TimeUnit unit) {
+
+        return executor.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (MessenteException | RuntimeException ex) {
+                // Keep the current estimate until the next attempt
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Gets the balance left after all debits.
+     *
+     * @return available balance in micro units.
+     */
+    public long getAvailableMicros() {
+        return limit - spent.get();
+    }
+
+    /**
+     * Debits the amount if the balance allows it.
+     *
+     * @param micros amount in micro units.
+     * @return true if the amount was debited, false if it exceeds the
+     * available balance.
+     */
+    public boolean tryDebit(long micros) {
+
+        while (true) {
+            long current = spent.get();
+            if (limit - current < micros) {
+                return false;
+            }
+            if (spent.compareAndSet(current, current + micros)) {
+                record(micros);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns debited amount to the balance, e.g. when a message couldn't be
+     * sent.
+     *
+     * @param micros amount in micro units.
+     */
+    public void refund(long micros) {
+        spent.addAndGet(-micros);
+        record(-micros);
+    }
+
+    /**
+     * Adds debit or refund to the unsettled ones and settles the old ones.
+     */
+    private void record(long micros) {
+
+        long now = clock.getAsLong();
+        unsettled.add(new Entry(now, micros));
+
+        Entry head = unsettled.peek();
+        if (head != null && now - head.time > settleWindowNanos) {
+            synchronized (unsettled) {
+                settle(now - settleWindowNanos);
+            }
+        }
+    }
+
+    /**
+     * Moves debits and refunds made before the cutoff to the settled total.
+     *
+     * @return settled total.
+     */
+    private long settle(long cutoff) {
+
+        Entry head;
+        while ((head = unsettled.peek()) != null && cutoff - head.time > 0) {
+            unsettled.poll();
+            settled += head.micros;
+        }
+        return settled;
+    }
+
+    /**
+     * Sends SMS if its estimated cost fits into the available balance. The
+     * cost is debited before sending and refunded if the API rejects the
+     * message.
+     *
+     * @param from Sender ID, null for the default sender.
+     * @param to Recipient's phone number.
+     * @param text SMS text.
+     * @param options Customized options to use for API call.
+     * @return MessenteResponse object with API response.
+     * @throws MessenteException if the cost can't be estimated, the balance
+     * is exceeded or HTTP request fails.
+     */
+    public MessenteResponse sendSMS(String from, String to, String text,
+            MessenteOptions options) throws MessenteException {
+
+        long cost = estimator.estimateMicros(to, text);
+        if (cost < 0) {
+            throw new MessenteException("Unable to estimate cost of SMS to " + to + "!");
+        }
+
+        if (!tryDebit(cost)) {
+            throw new MessenteException("Insufficient balance! Available "
+                    + getAvailableMicros() + " micros, required " + cost + " micros.");
+        }
+
+        boolean sent = false;
+        try {
+            MessenteResponse response = sender.send(from, to, text,
+                    options != null ? options : new MessenteOptions());
+            sent = response != null && response.isSuccess();
+            return response;
+        } finally {
+            if (!sent) {
+                refund(cost);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.response.PriceTable;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estimated cost of a campaign by destination country.
+ *
+ * Costs are in micro units of the account currency, see
+ * {@link PriceTable#MICROS}. Recipients whose number can't be normalized or
+ * doesn't match any dialling code are counted as unresolved and have no
+ * cost.
+ *
+ * @see CampaignCostEstimator
+ * @author Lennar Kallas
+ */
+public final class CampaignCost {
+
+    private static final int COUNTRY_COUNT = Country.values().length;
+
+    /**
+     * Number of messages and parts indexed by country ordinal.
+     */
+    private final long[] messages = new long[COUNTRY_COUNT];
+    private final long[] parts = new long[COUNTRY_COUNT];
+
+    /**
+     * Price of one part indexed by country ordinal, -1 if the country has no
+     * price list.
+     */
+    private final long[] prices = new long[COUNTRY_COUNT];
+
+    private long unresolved;
+
+    CampaignCost() {
+    }
+
+    /**
+     * Counts the message in.
+     *
+     * @param country destination country, null if it couldn't be resolved.
+     * @param partCount SMS part count of the message.
+     */
+    void add(Country country, int partCount) {
+        if (country == null) {
+            unresolved++;
+        } else {
+            messages[country.ordinal()]++;
+            parts[country.ordinal()] += partCount;
+        }
+    }
+
+    /**
+     * Adds the counts of other estimate to this one.
+     *
+     * @param other estimate to merge.
+     */
+    void merge(CampaignCost other) {
+        for (int i = 0; i < COUNTRY_COUNT; i++) {
+            messages[i] += other.messages[i];
+            parts[i] += other.parts[i];
+        }
+        unresolved += other.unresolved;
+    }
+
+    /**
+     * Sets the price of one part in the country.
+     *
+     * @param country destination country.
+     * @param priceMicros price in micro units, -1 if not known.
+     */
+    void setPrice(Country country, long priceMicros) {
+        prices[country.ordinal()] = priceMicros;
+    }
+
+    /**
+     * Gets the destination countries of the campaign.
+     *
+     * @return countries with at least one message.
+     */
+    public Set<Country> getCountries() {
+
+        Set<Country> countries = EnumSet.noneOf(Country.class);
+        for (Country country : Country.values()) {
+            if (messages[country.ordinal()] != 0) {
+                countries.add(country);
+            }
+        }
+        return Collections.unmodifiableSet(countries);
+    }
+
+    /**
+     * Gets the destination countries that have no price list. Messages to
+     * these countries are not included in the cost.
+     *
+     * @return countries with messages but without price.
+     */
+    public Set<Country> getUnpricedCountries() {
+
+        Set<Country> countries = EnumSet.noneOf(Country.class);
+        for (Country country : Country.values()) {
+            if (messages[country.ordinal()] != 0 && prices[country.ordinal()] < 0) {
+                countries.add(country);
+            }
+        }
+        return Collections.unmodifiableSet(countries);
+    }
+
+    /**
+     * Gets the number of messages with resolved destination country.
+     *
+     * @return message count.
+     */
+    public long getMessageCount() {
+        long total = 0;
+        for (long count : messages) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of messages to the country.
+     *
+     * @param country destination country.
+     * @return message count.
+     */
+    public long getMessageCount(Country country) {
+        return messages[country.ordinal()];
+    }
+
+    /**
+     * Gets the number of recipients whose country couldn't be resolved.
+     *
+     * @return unresolved recipient count.
+     */
+    public long getUnresolvedCount() {
+        return unresolved;
+    }
+
+    /**
+     * Gets the total number of parts of messages with resolved destination
+     * country.
+     *
+     * @return part count.
+     */
+    public long getTotalParts() {
+        long total = 0;
+        for (long count : parts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the total number of parts of messages to the country.
+     *
+     * @param country destination country.
+     * @return part count.
+     */
+    public long getTotalParts(Country country) {
+        return parts[country.ordinal()];
+    }
+
+    /**
+     * Gets the cost of messages to the country.
+     *
+     * @param country destination country.
+     * @return cost in micro units, 0 if the country has no price list.
+     */
+    public long getCostMicros(Country country) {
+        int index = country.ordinal();
+        return prices[index] > 0 ? parts[index] * prices[index] : 0;
+    }
+
+    /**
+     * Gets the total cost of the campaign.
+     *
+     * @return cost in micro units.
+     */
+    public long getTotalCostMicros() {
+        long total = 0;
+        for (Country country : Country.values()) {
+            total += getCostMicros(country);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the total cost of the campaign.
+     *
+     * @return cost in account currency.
+     */
+    public double getTotalCost() {
+        return (double) getTotalCostMicros() / PriceTable.MICROS;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder b = new StringBuilder()
+                .append("Messages: ").append(getMessageCount()).append("\n")
+                .append("Parts: ").append(getTotalParts()).append("\n")
+                .append("Unresolved: ").append(getUnresolvedCount()).append("\n")
+                .append("Cost: ").append(getTotalCost()).append("\n");
+
+        for (Country country : getCountries()) {
+            b.append(country).append(": ").append(getMessageCount(country))
+                    .append(" messages, ").append(getTotalParts(country))
+                    .append(" parts, ");
+            if (prices[country.ordinal()] < 0) {
+                b.append("no price\n");
+            } else {
+                b.append((double) getCostMicros(country) / PriceTable.MICROS).append("\n");
+            }
+        }
+        return b.toString().trim();
+    }
+}
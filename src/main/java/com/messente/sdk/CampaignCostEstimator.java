@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.response.MessenteResponse;
+import com.messente.sdk.response.PriceMatrix;
+import com.messente.sdk.response.PriceTable;
+import com.messente.sdk.response.PriceTableParser;
+import com.messente.sdk.utils.CountryPrefixIndex;
+import com.messente.sdk.utils.PhoneNumberNormalizer;
+import com.messente.sdk.utils.SmsLengthCalculator;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Campaign cost estimator.
+ *
+ * Recipients are normalized and resolved to a country, texts are split into
+ * parts and the parts are summed up per country in parallel. Prices are
+ * looked up once per destination country after the messages are counted, so
+ * with a warm {@link PriceListCache} or a {@link PriceMatrix} the estimate
+ * makes no API requests.
+ *
+ * The network of a recipient is not known before sending, so the highest
+ * network price of the country is used and the estimate is an upper bound.
+ *
+ * @author Lennar Kallas
+ */
+public class CampaignCostEstimator {
+
+    /**
+     * Gets the price list of a country.
+     */
+    interface PriceLookup {
+
+        PriceTable get(Country country) throws MessenteException;
+    }
+
+    /**
+     * Price list parsed from a cached response.
+     */
+    private static final class ParsedPriceList {
+
+        private final MessenteResponse response;
+        private final PriceTable table;
+
+        private ParsedPriceList(MessenteResponse response, PriceTable table) {
+            this.response = response;
+            this.table = table;
+        }
+    }
+
+    private static final PhoneNumberNormalizer NORMALIZER = new PhoneNumberNormalizer();
+    private static final CountryPrefixIndex PREFIX_INDEX = new CountryPrefixIndex();
+    private static final SmsLengthCalculator CALCULATOR = new SmsLengthCalculator();
+
+    private final PriceLookup prices;
+
+    /**
+     * Creates estimator that gets prices from the cache. Price lists are
+     * requested from the API only if they are not cached yet.
+     *
+     * @param cache price list cache.
+     */
+    public CampaignCostEstimator(final PriceListCache cache) {
+
+        final PriceTableParser parser = new PriceTableParser();
+        final ConcurrentHashMap<Country, ParsedPriceList> parsed = new ConcurrentHashMap<>();
+
+        this.prices = country -> {
+            MessenteResponse response = cache.getPriceList(country);
+            if (response == null || !response.isSuccess()) {
+                return null;
+            }
+
+            // Parse each cached response once, reparse when it's refreshed
+            ParsedPriceList entry = parsed.get(country);
+            if (entry == null || entry.response != response) {
+                entry = new ParsedPriceList(response,
+                        parser.parse(new StringReader(response.getRawResponse())));
+                parsed.put(country, entry);
+            }
+            return entry.table;
+        };
+    }
+
+    /**
+     * Creates estimator that gets prices from the price matrix. Estimates
+     * never make API requests.
+     *
+     * @param matrix price matrix.
+     */
+    public CampaignCostEstimator(PriceMatrix matrix) {
+        this.prices = matrix::get;
+    }
+
+    CampaignCostEstimator(PriceLookup prices) {
+        this.prices = prices;
+    }
+
+    /**
+     * Estimates the cost of sending the same text to all recipients.
+     *
+     * @param recipients phone numbers in any common notation.
+     * @param content SMS text.
+     * @return campaign cost by country.
+     * @throws MessenteException if a price list can't be fetched.
+     */
+    public CampaignCost estimate(Collection<? extends CharSequence> recipients,
+            CharSequence content) throws MessenteException {
+
+        final int parts = getPartCount(content);
+
+        CampaignCost cost = recipients.parallelStream().collect(CampaignCost::new,
+                (result, recipient) -> result.add(resolve(recipient), parts),
+                CampaignCost::merge);
+
+        return price(cost);
+    }
+
+    /**
+     * Estimates the cost of personalized messages. The stream is processed in
+     * parallel.
+     *
+     * @param <T> message type.
+     * @param messages stream of messages.
+     * @param recipient gets the phone number of a message.
+     * @param content gets the SMS text of a message.
+     * @return campaign cost by country.
+     * @throws MessenteException if a price list can't be fetched.
+     */
+    public <T> CampaignCost estimate(Stream<T> messages,
+            final Function<? super T, ? extends CharSequence> recipient,
+            final Function<? super T, ? extends CharSequence> content)
+            throws MessenteException {
+
+        CampaignCost cost = messages.parallel().collect(CampaignCost::new,
+                (result, message) -> result.add(resolve(recipient.apply(message)),
+                        getPartCount(content.apply(message))),
+                CampaignCost::merge);
+
+        return price(cost);
+    }
+
+    /**
+     * Estimates the cost of a single message.
+     *
+     * @param recipient phone number in any common notation.
+     * @param content SMS text.
+     * @return cost in micro units, -1 if the country of the recipient can't
+     * be resolved or has no price list.
+     * @throws MessenteException if the price list can't be fetched.
+     */
+    public long estimateMicros(CharSequence recipient, CharSequence content)
+            throws MessenteException {
+
+        Country country = resolve(recipient);
+        if (country == null) {
+            return -1;
+        }
+
+        long price = getPriceMicros(country);
+        return price < 0 ? -1 : price * getPartCount(content);
+    }
+
+    /**
+     * Looks up the price of each destination country once.
+     */
+    private CampaignCost price(CampaignCost cost) throws MessenteException {
+
+        for (Country country : cost.getCountries()) {
+            cost.setPrice(country, getPriceMicros(country));
+        }
+        return cost;
+    }
+
+    /**
+     * Gets the highest price of one part in the country, -1 if not known.
+     */
+    private long getPriceMicros(Country country) throws MessenteException {
+        PriceTable table = prices.get(country);
+        return table != null && table.getNetworkCount() > 0 ? table.getMaxPriceMicros() : -1;
+    }
+
+    private static Country resolve(CharSequence recipient) {
+        PhoneNumberNormalizer.Result number = NORMALIZER.normalize(recipient);
+        return number.isValid() ? PREFIX_INDEX.resolve(number.getNumber()) : null;
+    }
+
+    private static int getPartCount(CharSequence content) {
+        return CALCULATOR.getPartCount(content.toString());
+    }
+}
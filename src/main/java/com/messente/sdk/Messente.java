@@ -19,17 +19,24 @@ import com.messente.sdk.options.MessenteOptions;
 import com.messente.sdk.enums.Country;
 import com.messente.sdk.enums.ApiMethod;
 import com.messente.sdk.enums.HttpProtocol;
+import com.messente.sdk.enums.PhoneNumberError;
+import com.messente.sdk.enums.RequestError;
+import com.messente.sdk.enums.ResponseCode;
 import com.messente.sdk.enums.ResponseFormat;
 import com.messente.sdk.response.MessenteResponse;
+import com.messente.sdk.exception.AccountException;
 import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.exception.ResponseException;
 import com.messente.sdk.response.MessenteDeliveryStatus;
+import com.messente.sdk.response.PriceTable;
+import com.messente.sdk.response.PriceTableParser;
+import com.messente.sdk.utils.PhoneNumberNormalizer;
 
-import java.io.BufferedReader;
 import java.io.DataOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 
 import java.net.HttpURLConnection;
@@ -41,9 +48,11 @@ import javax.net.ssl.HttpsURLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is the heart &amp; brain of this SDK. Provides flexible ways to
@@ -70,6 +79,62 @@ public class Messente {
             "messente.main.url",
             "messente.backup.url");
 
+    /**
+     * Normalizer for recipient phone numbers.
+     */
+    private final PhoneNumberNormalizer PHONE_NUMBER_NORMALIZER = new PhoneNumberNormalizer();
+
+    /**
+     * Parser for typed price lists.
+     */
+    private final PriceTableParser PRICE_TABLE_PARSER = new PriceTableParser();
+
+    /**
+     * Shared results of request validation errors.
+     */
+    private static final UrlResult MISSING_RECIPIENT = UrlResult.error(
+            RequestError.MISSING_RECIPIENT, "Can't build URL : recipient is not specified!");
+    private static final UrlResult MISSING_TEXT = UrlResult.error(
+            RequestError.MISSING_TEXT, "Can't build URL : SMS text is not specified!");
+    private static final UrlResult INVALID_TEMPLATE = UrlResult.error(
+            RequestError.INVALID_TEMPLATE,
+            "Verification message template is missing '<PIN>' placeholder!");
+    private static final UrlResult MISSING_VERIFICATION_ID = UrlResult.error(
+            RequestError.MISSING_VERIFICATION_ID, "Missing Verification ID!");
+    private static final UrlResult MISSING_PIN = UrlResult.error(
+            RequestError.MISSING_PIN, "PIN missing!");
+    private static final UrlResult INVALID_COOKIE = UrlResult.error(
+            RequestError.INVALID_COOKIE, "Invalid cookie");
+    private static final Map<PhoneNumberError, UrlResult> INVALID_RECIPIENT
+            = invalidRecipientResults("Can't build URL : ", "!");
+    private static final Map<PhoneNumberError, UrlResult> INVALID_VERIFICATION_RECIPIENT
+            = invalidRecipientResults("Invalid recipient's phone number! ", "");
+
+    /**
+     * Default time to live and size of the caches of rejected recipients and
+     * sender IDs.
+     */
+    private static final long DEFAULT_NEGATIVE_CACHE_TTL = TimeUnit.MINUTES.toNanos(10);
+    private static final int DEFAULT_NEGATIVE_CACHE_SIZE = 10000;
+
+    /**
+     * Recipients rejected with "ERROR 108" and sender IDs rejected with
+     * "ERROR 111". Messages to them fail locally until the entries expire.
+     */
+    private volatile NegativeCache blacklistedRecipients = new NegativeCache(
+            DEFAULT_NEGATIVE_CACHE_TTL, DEFAULT_NEGATIVE_CACHE_SIZE, System::nanoTime);
+    private volatile NegativeCache invalidSenders = new NegativeCache(
+            DEFAULT_NEGATIVE_CACHE_TTL, DEFAULT_NEGATIVE_CACHE_SIZE, System::nanoTime);
+
+    /**
+     * How often a request is let through after the API has rejected the
+     * credentials ("ERROR 101") or the IP address ("ERROR 103").
+     */
+    private static final long DEFAULT_ACCOUNT_PROBE_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private volatile AccountGuard accountGuard = new AccountGuard(
+            DEFAULT_ACCOUNT_PROBE_INTERVAL, System::nanoTime);
+
     /**
      * Constructs Messente object with values from external properties file.
      *
@@ -305,6 +370,60 @@ public class Messente {
         this.backupServer = backupServer;
     }
 
+    /**
+     * Configures the caches of rejected recipients and sender IDs. Messages
+     * to recipients the API has reported as blacklisted ("ERROR 108") and
+     * from sender IDs reported as invalid ("ERROR 111") fail locally with the
+     * same response until the entries expire. Existing entries are dropped.
+     *
+     * @param ttl how long a rejection is remembered, 0 to disable the caches.
+     * @param unit time unit of ttl.
+     * @param maxSize maximum number of entries in each cache.
+     */
+    public void setNegativeCaching(long ttl, TimeUnit unit, int maxSize) {
+        blacklistedRecipients = new NegativeCache(unit.toNanos(ttl), maxSize, System::nanoTime);
+        invalidSenders = new NegativeCache(unit.toNanos(ttl), maxSize, System::nanoTime);
+    }
+
+    /**
+     * Forgets all rejected recipients and sender IDs, e.g. after a sender ID
+     * has been activated.
+     */
+    public void clearNegativeCaches() {
+        blacklistedRecipients.clear();
+        invalidSenders.clear();
+    }
+
+    /**
+     * Configures how account level errors are handled. After the API has
+     * rejected the credentials ("ERROR 101") or the IP address ("ERROR 103"),
+     * all requests throw {@link AccountException} without contacting the API,
+     * except for a single request per interval that checks whether the
+     * account works again. Resets the current state.
+     *
+     * @param interval time between the checks, 0 to disable failing fast.
+     * @param unit time unit of interval.
+     */
+    public void setAccountProbeInterval(long interval, TimeUnit unit) {
+        accountGuard = new AccountGuard(unit.toNanos(interval), System::nanoTime);
+    }
+
+    /**
+     * Gets the account level error that currently blocks requests.
+     *
+     * @return ACCESS_RESTRICTED or INVALID_IP, null if requests are allowed.
+     */
+    public ResponseCode getAccountError() {
+        return accountGuard.getError();
+    }
+
+    /**
+     * Allows requests again, e.g. after the credentials have been fixed.
+     */
+    public void resetAccountError() {
+        accountGuard.reset();
+    }
+
     /**
      * Verifies PIN code.
      *
@@ -477,19 +596,35 @@ public class Messente {
      * ID or PIN entered.
      */
     public URL getPinVerificationURL(String verificationId, String pin, MessenteOptions options, String cookie) throws MessenteException {
+        return getPinVerificationUrlResult(verificationId, pin, options, cookie).getUrlOrThrow();
+    }
+
+    /**
+     * Gets the URL for PIN code verification without throwing on invalid
+     * input.
+     *
+     * @param verificationId Verification ID.
+     * @param pin PIN code user entered.
+     * @param options Customized options to use for API call.
+     * @param cookie Unique cookie assigned to verification session.
+     * @return result with the URL or the reason why it couldn't be built.
+     */
+    public UrlResult getPinVerificationUrlResult(String verificationId, String pin,
+            MessenteOptions options, String cookie) {
+
         // Check verification ID
         if (verificationId == null || verificationId.trim().isEmpty()) {
-            throw new MessenteException("Missing Verification ID!");
+            return MISSING_VERIFICATION_ID;
         }
 
         // Check PIN
         if (pin == null || pin.trim().isEmpty()) {
-            throw new MessenteException("PIN missing!");
+            return MISSING_PIN;
         }
 
         // Check cookie (can't be empty string)
         if (cookie != null && cookie.trim().isEmpty()) {
-            throw new MessenteException("Invalid cookie");
+            return INVALID_COOKIE;
         }
 
         // Set default options
@@ -497,25 +632,29 @@ public class Messente {
             options = new MessenteOptions();
         }
 
-        StringBuilder postData = new StringBuilder();
+        try {
+            StringBuilder postData = new StringBuilder();
 
-        // Get pre-defined options for verification session
-        Map<String, String> verifyOps = options.getPinVerifyOptions();
-        // Check pre defined options map
-        if (verifyOps != null && !verifyOps.isEmpty()) {
-            appendRequestParameters(postData, verifyOps, true);
-        }
+            // Get pre-defined options for verification session
+            Map<String, String> verifyOps = options.getPinVerifyOptions();
+            // Check pre defined options map
+            if (verifyOps != null && !verifyOps.isEmpty()) {
+                appendRequestParameters(postData, verifyOps, true);
+            }
 
-        // Check and add cookie
-        if (cookie != null && !cookie.trim().isEmpty()) {
-            appendRequestParameter(postData, "cookie", cookie, "UTF-8"); // Add cookie
+            // Check and add cookie
+            if (cookie != null && !cookie.trim().isEmpty()) {
+                appendRequestParameter(postData, "cookie", cookie, "UTF-8"); // Add cookie
 
-        }
+            }
 
-        appendRequestParameter(postData, "pin", pin, "UTF-8"); // Add pin
-        appendRequestParameter(postData, "verification_id", verificationId, "UTF-8"); // Add verification ID
+            appendRequestParameter(postData, "pin", pin, "UTF-8"); // Add pin
+            appendRequestParameter(postData, "verification_id", verificationId, "UTF-8"); // Add verification ID
 
-        return buildURL(options.getProtocol(), ApiMethod.VERIFY_PIN, postData.toString());
+            return UrlResult.of(buildURL(options.getProtocol(), ApiMethod.VERIFY_PIN, postData.toString()));
+        } catch (MessenteException ex) {
+            return UrlResult.error(RequestError.INVALID_PARAMETER, ex.getMessage());
+        }
     }
 
     /**
@@ -714,9 +853,10 @@ public class Messente {
         if (options == null) {
             options = new MessenteOptions();
         }
-        URL url = getStartVerificationURL(from, to, template, options, cookie);
+        UrlResult result = getStartVerificationUrlResult(from, to, template, options, cookie);
+        URL url = result.getUrlOrThrow();
 
-        return sendRequest(url, options.getHttpMethod());
+        return sendRequest(url, options.getHttpMethod(), from, result.getRecipient());
     }
 
     /**
@@ -758,55 +898,87 @@ public class Messente {
             MessenteOptions options,
             String cookie) throws MessenteException {
 
+        return getStartVerificationUrlResult(from, to, template, options, cookie).getUrlOrThrow();
+    }
+
+    /**
+     * Gets the URL for PIN code verification without throwing on invalid
+     * input.
+     *
+     * @param from Sender ID that is used when PIN code is sent via SMS. Note
+     * that this sender ID must be activated by Messente.
+     * @param to Recipient's phone number where to send PIN code via SMS.
+     * @param template Template of the SMS message. Must contain placeholder
+     * %3CPIN%3E for PIN.
+     * @param options Customized options for API call.
+     * @param cookie Unique cookie assigned for this session.
+     * @return result with the URL or the reason why it couldn't be built.
+     */
+    public UrlResult getStartVerificationUrlResult(
+            String from,
+            String to,
+            String template,
+            MessenteOptions options,
+            String cookie) {
+
         // Check SMS template for required placeholder
         if ((template != null && !template.trim().isEmpty()) && !template.contains("<PIN>")) {
-            throw new MessenteException(
-                    "Verification message template "
-                    + "is missing '<PIN>' placeholder!");
+            return INVALID_TEMPLATE;
         }
 
         // Check phone number
-        if (!to.replaceAll("\\D+", "").matches("\\d+")) {
-            throw new MessenteException("Invalid recipient's phone number!");
+        PhoneNumberNormalizer.Result recipient = PHONE_NUMBER_NORMALIZER.normalize(to);
+        if (!recipient.isValid()) {
+            return INVALID_VERIFICATION_RECIPIENT.get(recipient.getError());
         }
 
         // Check cookie
         if (cookie != null && cookie.trim().isEmpty()) {
-            throw new MessenteException("Invalid cookie");
+            return INVALID_COOKIE;
         }
 
-        StringBuilder postData = new StringBuilder();
+        // Set default options
+        if (options == null) {
+            options = new MessenteOptions();
+        }
 
-        // Get pre-defined options for verification session
-        Map<String, String> verifyOps = options.getVerifySessionStartOptions();
+        try {
+            StringBuilder postData = new StringBuilder();
 
-        // Check pre defined options map
-        if (verifyOps != null && !verifyOps.isEmpty()) {
-            appendRequestParameters(postData, verifyOps, true);
-        }
+            // Get pre-defined options for verification session
+            Map<String, String> verifyOps = options.getVerifySessionStartOptions();
 
-        // Set 'from' parameter
-        if (from != null && !from.trim().isEmpty()) {
-            appendRequestParameter(
-                    postData,
-                    "from",
-                    from,
-                    options.getCharset());
-        }
+            // Check pre defined options map
+            if (verifyOps != null && !verifyOps.isEmpty()) {
+                appendRequestParameters(postData, verifyOps, true);
+            }
 
-        // Check and add template
-        if (template != null && !template.trim().isEmpty()) {
-            appendRequestParameter(postData, "template", template, "UTF-8");
-        }
+            // Set 'from' parameter
+            if (from != null && !from.trim().isEmpty()) {
+                appendRequestParameter(
+                        postData,
+                        "from",
+                        from,
+                        options.getCharset());
+            }
 
-        // Check and add cookie
-        if (cookie != null && !cookie.trim().isEmpty()) {
-            appendRequestParameter(postData, "cookie", cookie, "UTF-8"); // Add cookie
-        }
+            // Check and add template
+            if (template != null && !template.trim().isEmpty()) {
+                appendRequestParameter(postData, "template", template, "UTF-8");
+            }
+
+            // Check and add cookie
+            if (cookie != null && !cookie.trim().isEmpty()) {
+                appendRequestParameter(postData, "cookie", cookie, "UTF-8"); // Add cookie
+            }
 
-        appendRequestParameter(postData, "to", preparePhoneNumber(to), "UTF-8"); // Add recipient
+            appendRequestParameter(postData, "to", recipient.getNumber(), "UTF-8"); // Add recipient
 
-        return buildURL(options.getProtocol(), ApiMethod.VERIFY_START, postData.toString());
+            return UrlResult.of(buildURL(options.getProtocol(), ApiMethod.VERIFY_START, postData.toString()),
+                    recipient.getNumber());
+        } catch (MessenteException ex) {
+            return UrlResult.error(RequestError.INVALID_PARAMETER, ex.getMessage());
+        }
     }
 
     /**
@@ -858,9 +1030,10 @@ public class Messente {
             options = new MessenteOptions();
         }
 
-        URL url = getMessagingURL(from, to, text, options);
+        UrlResult result = getMessagingUrlResult(from, to, text, options);
+        URL url = result.getUrlOrThrow();
 
-        return sendRequest(url, options.getHttpMethod());
+        return sendRequest(url, options.getHttpMethod(), from, result.getRecipient());
     }
 
     /**
@@ -892,18 +1065,6 @@ public class Messente {
         return sendSMS(null, to, text, new MessenteOptions());
     }
 
-    /**
-     * Prepares phone number for API call. Removes all non-digit characters and
-     * adds '+' character as prefix.
-     *
-     * @param number phone number.
-     * @return phone number in correct format for using Messente API call.
-     */
-    private String preparePhoneNumber(String number) {
-        number = number.replaceAll("\\D+", "");
-        return "+" + number;
-    }
-
     /**
      * Creates a string with API user credentials that is usable in HTTP
      * request.
@@ -933,23 +1094,55 @@ public class Messente {
     }
 
     /**
-     * Dispatch method for making HTTP requests. Retry call to backup server if
-     * main server failed.
+     * Dispatch method for making HTTP requests. Fails without a request while
+     * the account is rejected by the API.
      *
      * @param url URL of the request.
      * @param httpMethod HTTP POST/GET method used for request.
      * @return response from the API server as MessenteResponse object.
      * @throws MessenteException if HTTP request fails.
+     * @throws AccountException if the API has rejected the credentials or
+     * the IP address and it's not time to check again.
      */
     private MessenteResponse sendRequest(URL url, String httpMethod) throws MessenteException {
 
+        AccountGuard guard = accountGuard;
+        boolean probe = guard.acquire();
+
+        MessenteResponse response;
+        try {
+            response = dispatchRequest(url, httpMethod);
+        } catch (MessenteException | RuntimeException ex) {
+            if (probe) {
+                guard.fail();
+            }
+            throw ex;
+        }
+        guard.record(response, probe);
+
+        return response;
+    }
+
+    /**
+     * Makes HTTP request and retries it with the backup server if the main
+     * server failed.
+     *
+     * @param url URL of the request.
+     * @param httpMethod HTTP POST/GET method used for request.
+     * @return response from the API server as MessenteResponse object.
+     * @throws MessenteException if HTTP request fails.
+     */
+    private MessenteResponse dispatchRequest(URL url, String httpMethod)
+            throws MessenteException {
+
         boolean retry = false;
         MessenteResponse response = null;
 
         response = makeHttpRequest(url, httpMethod);
 
+        ResponseCode code = response.getResponseCode();
         retry = !response.isSuccess()
-                && (response.getResponseMessage().equals(MessenteResponse.SERVER_FAILURE)
+                && ((code != null && code.isRetryable())
                 || response.getHttpResponseCode() != 200);
 
         // Retry with backup server
@@ -965,6 +1158,72 @@ public class Messente {
         return response;
     }
 
+    /**
+     * Sends request that delivers SMS to the recipient. Fails locally with
+     * the same response as the API if the recipient or sender ID has recently
+     * been rejected, and remembers new rejections.
+     *
+     * @param url target URL.
+     * @param httpMethod HTTP POST or GET.
+     * @param from sender ID, null for the default sender.
+     * @param recipient recipient's normalized phone number.
+     * @return response from the API server or the cached rejection.
+     * @throws MessenteException if HTTP request fails.
+     */
+    private MessenteResponse sendRequest(URL url, String httpMethod, String from,
+            String recipient) throws MessenteException {
+
+        MessenteResponse rejection = getCachedRejection(from, recipient);
+        if (rejection != null) {
+            return rejection;
+        }
+
+        MessenteResponse response = sendRequest(url, httpMethod);
+        rememberRejection(from, recipient, response);
+
+        return response;
+    }
+
+    /**
+     * Gets the cached rejection of the recipient or sender ID.
+     *
+     * @param from sender ID, null for the default sender.
+     * @param recipient recipient's normalized phone number.
+     * @return "ERROR 108" or "ERROR 111" response, null if neither has been
+     * rejected recently.
+     */
+    MessenteResponse getCachedRejection(String from, String recipient) {
+
+        if (blacklistedRecipients.contains(recipient)) {
+            return MessenteResponse.of(ResponseCode.BLACKLISTED_NR);
+        }
+        if (invalidSenders.contains(getSenderKey(from))) {
+            return MessenteResponse.of(ResponseCode.INVALID_SENDER);
+        }
+        return null;
+    }
+
+    /**
+     * Remembers the recipient or sender ID if the API rejected it.
+     *
+     * @param from sender ID, null for the default sender.
+     * @param recipient recipient's normalized phone number.
+     * @param response response from the API server.
+     */
+    void rememberRejection(String from, String recipient, MessenteResponse response) {
+
+        ResponseCode code = response.getResponseCode();
+        if (code == ResponseCode.BLACKLISTED_NR) {
+            blacklistedRecipients.add(recipient);
+        } else if (code == ResponseCode.INVALID_SENDER) {
+            invalidSenders.add(getSenderKey(from));
+        }
+    }
+
+    private static String getSenderKey(String from) {
+        return from != null && !from.trim().isEmpty() ? from : null;
+    }
+
     /**
      * Takes care of making HTTP request to given URL.
      *
@@ -980,46 +1239,27 @@ public class Messente {
             throw new MessenteException("URL not provided for HTTP request!");
         }
 
-        String postData = url.getQuery();
         HttpURLConnection conn = null;
 
         int responseCode = 0;
-        String resp = null;
+        byte[] body = new byte[256];
+        int length = 0;
 
         try {
 
-            if (url.getProtocol().equals("https")) {
-                conn = (HttpsURLConnection) url.openConnection();
-            } else {
-                conn = (HttpURLConnection) url.openConnection();
-            }
-
-            conn.setRequestMethod(httpMethod);
-            conn.setRequestProperty("User-Agent", "Messente-SDK");
-            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-
-            // Write POST data
-            if (!httpMethod.equalsIgnoreCase("GET") && postData != null) {
-
-                conn.setDoOutput(true);
-                DataOutputStream wr = new DataOutputStream(conn.getOutputStream());
-                wr.writeBytes(postData);
-                wr.flush();
-                wr.close();
-            }
-
+            conn = openConnection(url, httpMethod);
             responseCode = conn.getResponseCode();
 
-            BufferedReader in = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream()));
-            String input;
-            StringBuilder response = new StringBuilder();
+            InputStream in = conn.getInputStream();
+            int read;
 
-            while ((input = in.readLine()) != null) {
-                response.append(input);
+            while ((read = in.read(body, length, body.length - length)) > 0) {
+                length += read;
+                if (length == body.length) {
+                    body = Arrays.copyOf(body, body.length * 2);
+                }
             }
             in.close();
-            resp = response.toString();
         } catch (IOException ex) {
             throw new MessenteException("Unable to read server response! "
                     + ex.getMessage() != null ? ex.getMessage() : "");
@@ -1029,7 +1269,80 @@ public class Messente {
             }
         }
 
-        return new MessenteResponse(resp, responseCode);
+        // Fixed replies are matched on bytes and shared
+        return MessenteResponse.of(body, length, responseCode);
+    }
+
+    /**
+     * Opens HTTP connection to given URL and writes POST data.
+     *
+     * @param url target URL.
+     * @param httpMethod HTTP POST or GET.
+     * @return connection ready for reading the response.
+     * @throws IOException if connection can't be opened.
+     */
+    private HttpURLConnection openConnection(URL url, String httpMethod) throws IOException {
+
+        String postData = url.getQuery();
+        HttpURLConnection conn;
+
+        if (url.getProtocol().equals("https")) {
+            conn = (HttpsURLConnection) url.openConnection();
+        } else {
+            conn = (HttpURLConnection) url.openConnection();
+        }
+
+        conn.setRequestMethod(httpMethod);
+        conn.setRequestProperty("User-Agent", "Messente-SDK");
+        conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+
+        // Write POST data
+        if (!httpMethod.equalsIgnoreCase("GET") && postData != null) {
+
+            conn.setDoOutput(true);
+            DataOutputStream wr = new DataOutputStream(conn.getOutputStream());
+            wr.writeBytes(postData);
+            wr.flush();
+            wr.close();
+        }
+
+        return conn;
+    }
+
+    /**
+     * Makes HTTP request for the price list and parses the response stream
+     * directly into a price table.
+     *
+     * @param url pricing URL.
+     * @param httpMethod HTTP POST or GET.
+     * @return parsed price list.
+     * @throws MessenteException if HTTP request fails or the response is not
+     * a price list.
+     */
+    private PriceTable readPriceTable(URL url, String httpMethod) throws MessenteException {
+
+        HttpURLConnection conn = null;
+        InputStream in = null;
+
+        try {
+            conn = openConnection(url, httpMethod);
+            in = conn.getInputStream();
+            return PRICE_TABLE_PARSER.parse(in);
+        } catch (IOException ex) {
+            throw new MessenteException("Unable to read server response! "
+                    + (ex.getMessage() != null ? ex.getMessage() : ""), ex);
+        } finally {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                // Response is already parsed or failed
+            }
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
     }
 
     /**
@@ -1139,9 +1452,7 @@ public class Messente {
 
         MessenteResponse response = sendRequest(url, options.getHttpMethod());
 
-        return new MessenteDeliveryStatus(
-                response.getRawResponse(),
-                response.getHttpResponseCode());
+        return MessenteDeliveryStatus.of(response);
     }
 
     /**
@@ -1204,6 +1515,126 @@ public class Messente {
         return sendRequest(url, options.getHttpMethod());
     }
 
+    /**
+     * Gets the pricelist for given country as a typed price table. The
+     * response is parsed while it's being read.
+     *
+     * @param country Country which pricelist is requested.
+     * @return PriceTable object with network prices.
+     * @throws MessenteException if country is not specified, HTTP request
+     * fails or the API returns an error.
+     */
+    public PriceTable getPriceTable(Country country) throws MessenteException {
+        return getPriceTable(country, null);
+    }
+
+    /**
+     * Gets the pricelist for given country as a typed price table. The
+     * response is parsed while it's being read.
+     *
+     * @param country Country which pricelist is requested.
+     * @param options Customized options to use for API call.
+     * @return PriceTable object with network prices.
+     * @throws MessenteException if country is not specified, HTTP request
+     * fails or the API returns an error.
+     * @throws AccountException if the API has rejected the credentials or
+     * the IP address and it's not time to check again.
+     */
+    public PriceTable getPriceTable(Country country, MessenteOptions options)
+            throws MessenteException {
+
+        if (options == null) {
+            options = new MessenteOptions();
+        }
+
+        URL url = getPricingURL(ResponseFormat.JSON, country, options);
+
+        AccountGuard guard = accountGuard;
+        boolean probe = guard.acquire();
+
+        PriceTable table;
+        try {
+            table = dispatchPriceTableRequest(url, options.getHttpMethod());
+        } catch (ResponseException ex) {
+            guard.record(ex.getResponseCode(), 200, probe);
+            throw ex;
+        } catch (MessenteException | RuntimeException ex) {
+            if (probe) {
+                guard.fail();
+            }
+            throw ex;
+        }
+        guard.record(null, 200, probe);
+
+        return table;
+    }
+
+    /**
+     * Makes HTTP request for the price list and retries it with the backup
+     * server if the main server failed.
+     *
+     * @param url pricing URL.
+     * @param httpMethod HTTP POST or GET.
+     * @return parsed price list.
+     * @throws MessenteException if HTTP request fails or the response is not
+     * a price list.
+     */
+    private PriceTable dispatchPriceTableRequest(URL url, String httpMethod)
+            throws MessenteException {
+
+        try {
+            return readPriceTable(url, httpMethod);
+        } catch (MessenteException ex) {
+
+            if (getBackupServer() == null || !isRetryable(ex)) {
+                throw ex;
+            }
+
+            try {
+                url = new URL(url.toString().replaceFirst(server, backupServer));
+            } catch (MalformedURLException mex) {
+                throw ex;
+            }
+            return readPriceTable(url, httpMethod);
+        }
+    }
+
+    /**
+     * Builds the shared results of invalid recipient's phone numbers, one for
+     * each normalization error.
+     *
+     * @param prefix text before the error explanation.
+     * @param suffix text after the error explanation.
+     * @return results keyed by normalization error.
+     */
+    private static Map<PhoneNumberError, UrlResult> invalidRecipientResults(
+            String prefix, String suffix) {
+
+        Map<PhoneNumberError, UrlResult> results = new EnumMap<>(PhoneNumberError.class);
+        for (PhoneNumberError error : PhoneNumberError.values()) {
+            results.put(error, UrlResult.error(RequestError.INVALID_RECIPIENT,
+                    prefix + error.getMessage() + suffix));
+        }
+        return results;
+    }
+
+    /**
+     * Checks whether the failed request should be retried with the backup
+     * server, using the same rule as {@link #sendRequest(URL, String)}.
+     *
+     * @param ex exception of the failed request.
+     * @return true if the main server didn't respond or returned a
+     * retryable error.
+     */
+    private static boolean isRetryable(MessenteException ex) {
+
+        if (ex instanceof ResponseException) {
+            ResponseCode code = ((ResponseException) ex).getResponseCode();
+            return code != null && code.isRetryable();
+        }
+        return ex.getCause() instanceof IOException;
+    }
+
     /**
      * Gets the correct URL for HTTP request to Messente's pricing API.
      *
@@ -1380,31 +1811,57 @@ public class Messente {
      * @throws MessenteException If recipient or SMS text is not specified.
      */
     public URL getMessagingURL(String from, String to, String text, MessenteOptions options) throws MessenteException {
+        return getMessagingUrlResult(from, to, text, options).getUrlOrThrow();
+    }
+
+    /**
+     * Gets the correct URL for HTTP request to Messente's messaging API
+     * without throwing on invalid input.
+     *
+     * @param from Sender ID. Must be registered and validated under your
+     * messente.com account.
+     * @param to Recipient's phone number.
+     * @param text SMS text.
+     * @param options Makes API call with specific options.
+     * @return result with the URL or the reason why it couldn't be built.
+     */
+    public UrlResult getMessagingUrlResult(String from, String to, String text,
+            MessenteOptions options) {
 
         if (to == null || to.trim().isEmpty()) {
-            throw new MessenteException("Can't build URL : recipient is not specified!");
+            return MISSING_RECIPIENT;
         }
 
         if (text == null || text.trim().isEmpty()) {
-            throw new MessenteException("Can't build URL : SMS text is not specified!");
+            return MISSING_TEXT;
+        }
+
+        PhoneNumberNormalizer.Result recipient = PHONE_NUMBER_NORMALIZER.normalize(to);
+        if (!recipient.isValid()) {
+            return INVALID_RECIPIENT.get(recipient.getError());
         }
 
         if (options == null) {
             options = new MessenteOptions();
         }
 
-        StringBuilder postData = new StringBuilder();
+        try {
+            StringBuilder postData = new StringBuilder();
 
-        if (from != null && !from.trim().isEmpty()) {
-            appendRequestParameter(postData, "from", from, options.getCharset());
-        }
+            if (from != null && !from.trim().isEmpty()) {
+                appendRequestParameter(postData, "from", from, options.getCharset());
+            }
 
-        appendRequestParameter(postData, "to", preparePhoneNumber(to), "UTF-8");
-        appendRequestParameter(postData, "text", text, options.getCharset());
+            appendRequestParameter(postData, "to", recipient.getNumber(), "UTF-8");
+            appendRequestParameter(postData, "text", text, options.getCharset());
 
-        appendRequestParameters(postData, options.getSmsSendingOptions(), true);
+            appendRequestParameters(postData, options.getSmsSendingOptions(), true);
 
-        return buildURL(options.getProtocol(), ApiMethod.SEND_SMS, postData.toString());
+            return UrlResult.of(buildURL(options.getProtocol(), ApiMethod.SEND_SMS, postData.toString()),
+                    recipient.getNumber());
+        } catch (MessenteException ex) {
+            return UrlResult.error(RequestError.INVALID_PARAMETER, ex.getMessage());
+        }
     }
 
     /**
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded set of keys that expire after a time to live.
+ *
+ * Used by {@link Messente} to remember recipients and sender IDs the API has
+ * rejected, so requests that are known to fail don't need a round trip. All
+ * keys have the same time to live, so they expire in the order they were
+ * added and the oldest keys are dropped when the cache is full.
+ *
+ * @author Lennar Kallas
+ */
+class NegativeCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    /**
+     * Expiry time of each key.
+     */
+    private final ConcurrentHashMap<String, Long> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Added keys in expiry order. A key added again has a stale node that is
+     * skipped because its expiry doesn't match the map.
+     */
+    private final ConcurrentLinkedQueue<Node> order = new ConcurrentLinkedQueue<>();
+
+    private static final class Node {
+
+        private final String key;
+        private final Long expiresAt;
+
+        private Node(String key, Long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    NegativeCache(long ttlNanos, int maxSize, LongSupplier clock) {
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets whether the key is in the cache and not expired.
+     *
+     * @param key key to check.
+     * @return true if the key was added within the time to live.
+     */
+    boolean contains(String key) {
+
+        if (key == null || entries.isEmpty()) {
+            return false;
+        }
+
+        Long expiresAt = entries.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (clock.getAsLong() - expiresAt >= 0) {
+            entries.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Adds the key to the cache.
+     *
+     * @param key key to add.
+     */
+    void add(String key) {
+
+        if (key == null || ttlNanos <= 0 || maxSize <= 0) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        Long expiresAt = now + ttlNanos;
+
+        evict(now);
+        entries.put(key, expiresAt);
+        order.add(new Node(key, expiresAt));
+    }
+
+    /**
+     * Removes the key from the cache.
+     *
+     * @param key key to remove.
+     */
+    void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all keys.
+     */
+    void clear() {
+        entries.clear();
+        order.clear();
+    }
+
+    /**
+     * Gets the number of keys, including expired ones not removed yet.
+     *
+     * @return key count.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops expired keys and the oldest keys until there's room for a new
+     * one.
+     */
+    private void evict(long now) {
+
+        Node head;
+        while ((head = order.peek()) != null
+                && (now - head.expiresAt >= 0 || entries.size() >= maxSize)) {
+
+            if (order.remove(head)) {
+                entries.remove(head.key, head.expiresAt);
+            }
+        }
+    }
+}
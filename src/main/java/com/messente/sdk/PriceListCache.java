@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.enums.ResponseFormat;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.options.MessenteOptions;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Per country cache of Messente price lists.
+ *
+ * Price lists are kept for the configured time to live. Concurrent lookups
+ * of a country that is not cached yet share a single API request. When a
+ * price list expires, it's still returned while a fresh one is fetched in the
+ * background, so only the very first lookup of a country waits for the API.
+ * Unsuccessful responses are returned but not cached.
+ *
+ * Cached lookups only read a concurrent map and the clock and are safe to
+ * make from many threads.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceListCache {
+
+    /**
+     * Loads the price list of a country.
+     */
+    interface Loader {
+
+        MessenteResponse load(Country country) throws MessenteException;
+    }
+
+    /**
+     * Cached price list.
+     */
+    private static final class Entry {
+
+        private final MessenteResponse response;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(MessenteResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Default executor for background refreshes. Threads are daemons, so the
+     * cache never keeps the application running.
+     */
+    private static final Executor DEFAULT_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "messente-price-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<Country, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Country, CompletableFuture<MessenteResponse>> loads
+            = new ConcurrentHashMap<>();
+
+    /**
+     * Creates price list cache with default response format and options.
+     *
+     * @param messente Messente API client used to fetch price lists.
+     * @param ttl how long a price list is considered fresh.
+     * @param unit time unit of ttl.
+     */
+    public PriceListCache(Messente messente, long ttl, TimeUnit unit) {
+        this(messente, null, null, ttl, unit, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Creates price list cache.
+     *
+     * @param messente Messente API client used to fetch price lists.
+     * @param format format of the price lists, null for the API default.
+     * @param options options used for API calls, null for default options.
+     * @param ttl how long a price list is considered fresh.
+     * @param unit time unit of ttl.
+     * @param executor executor that runs background refreshes.
+     */
+    public PriceListCache(final Messente messente, final ResponseFormat format,
+            final MessenteOptions options, long ttl, TimeUnit unit, Executor executor) {
+
+        this(country -> messente.getPriceList(country, format, options),
+                unit.toNanos(ttl), executor, System::nanoTime);
+    }
+
+    PriceListCache(Loader loader, long ttlNanos, Executor executor, LongSupplier clock) {
+        this.loader = loader;
+        this.ttlNanos = ttlNanos;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the price list of the country. Makes an API request only if the
+     * price list is not cached yet.
+     *
+     * @param country Country which pricelist is requested.
+     * @return MessenteResponse object with pricelist, possibly expired while
+     * it's being refreshed.
+     * @throws MessenteException if country is not specified or HTTP request
+     * fails.
+     */
+    public MessenteResponse getPriceList(Country country) throws MessenteException {
+
+        if (country == null) {
+            throw new MessenteException("Country code not provided(null)!");
+        }
+
+        Entry entry = entries.get(country);
+        if (entry == null) {
+            return load(country);
+        }
+
+        if (clock.getAsLong() - entry.expiresAt >= 0) {
+            refresh(country, entry);
+        }
+        return entry.response;
+    }
+
+    /**
+     * Removes the cached price list of the country.
+     *
+     * @param country country to remove.
+     */
+    public void invalidate(Country country) {
+        entries.remove(country);
+    }
+
+    /**
+     * Removes all cached price lists.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Loads the price list, waiting for the request already made by another
+     * thread if there is one.
+     */
+    private MessenteResponse load(Country country) throws MessenteException {
+
+        CompletableFuture<MessenteResponse> future = new CompletableFuture<>();
+        CompletableFuture<MessenteResponse> running = loads.putIfAbsent(country, future);
+
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            // Another thread may have completed the load just before
+            Entry entry = entries.get(country);
+            MessenteResponse response = entry != null ? entry.response : fetch(country);
+            future.complete(response);
+            return response;
+        } catch (MessenteException | RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(country, future);
+        }
+    }
+
+    /**
+     * Starts background refresh of the expired price list unless one is
+     * already running. The expired price list is kept if refresh fails or
+     * the executor rejects it, and refresh is retried on the next request.
+     */
+    private void refresh(final Country country, final Entry entry) {
+
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    fetch(country);
+                } catch (MessenteException | RuntimeException ex) {
+                    // Keep serving the expired price list
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Rejected by the executor, keep serving the expired price list
+            entry.refreshing.set(false);
+        }
+    }
+
+    private MessenteResponse fetch(Country country) throws MessenteException {
+
+        MessenteResponse response = loader.load(country);
+
+        if (response != null && response.isSuccess()) {
+            entries.put(country, new Entry(response, clock.getAsLong() + ttlNanos));
+        }
+        return response;
+    }
+
+    private static MessenteResponse await(CompletableFuture<MessenteResponse> future)
+            throws MessenteException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MessenteException("Interrupted while waiting for price list!", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MessenteException) {
+                throw (MessenteException) ex.getCause();
+            }
+            throw new MessenteException("Failed to load price list!", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.exception.ResponseException;
+import com.messente.sdk.options.MessenteOptions;
+import com.messente.sdk.response.PriceMatrix;
+import com.messente.sdk.response.PriceTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the price lists of many countries into a {@link PriceMatrix}.
+ *
+ * Price lists are fetched in parallel by a bounded number of threads, so the
+ * API isn't flooded with requests. Countries the API doesn't know or
+ * support are left out of the matrix. Any other failure, e.g. the server
+ * can't be reached or the credentials are rejected, stops loading and is
+ * reported.
+ *
+ * Loaded matrix can be saved with {@link PriceMatrix#save} and mapped by
+ * other processes with {@link PriceMatrix#map} instead of fetching the price
+ * lists again.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceMatrixLoader {
+
+    /**
+     * Loads the price list of a country.
+     */
+    interface TableLoader {
+
+        PriceTable load(Country country) throws MessenteException;
+    }
+
+    private final TableLoader loader;
+    private final int parallelism;
+
+    /**
+     * Creates price matrix loader with default options.
+     *
+     * @param messente Messente API client used to fetch price lists.
+     * @param parallelism maximum number of concurrent API requests.
+     * @throws MessenteException if parallelism is less than 1.
+     */
+    public PriceMatrixLoader(Messente messente, int parallelism) throws MessenteException {
+        this(messente, null, parallelism);
+    }
+
+    /**
+     * Creates price matrix loader.
+     *
+     * @param messente Messente API client used to fetch price lists.
+     * @param options options used for API calls, null for default options.
+     * @param parallelism maximum number of concurrent API requests.
+     * @throws MessenteException if parallelism is less than 1.
+     */
+    public PriceMatrixLoader(final Messente messente, final MessenteOptions options,
+            int parallelism) throws MessenteException {
+
+        this(country -> messente.getPriceTable(country, options), parallelism);
+    }
+
+    PriceMatrixLoader(TableLoader loader, int parallelism) throws MessenteException {
+
+        if (parallelism < 1) {
+            throw new MessenteException("Parallelism must be at least 1, got "
+                    + parallelism + "!");
+        }
+        this.loader = loader;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads the price lists of all countries.
+     *
+     * @return price matrix.
+     * @throws MessenteException if a price list can't be loaded.
+     */
+    public PriceMatrix load() throws MessenteException {
+        return load(Arrays.asList(Country.values()));
+    }
+
+    /**
+     * Loads the price lists of the countries.
+     *
+     * @param countries countries to load.
+     * @return price matrix.
+     * @throws MessenteException if a price list can't be loaded.
+     */
+    public PriceMatrix load(Collection<Country> countries) throws MessenteException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, Math.max(1, countries.size())), r -> {
+                    Thread thread = new Thread(r, "messente-price-matrix");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        try {
+            List<Country> requested = new ArrayList<>(countries);
+            List<Future<PriceTable>> futures = new ArrayList<>(requested.size());
+
+            for (final Country country : requested) {
+                futures.add(executor.submit(() -> fetch(country)));
+            }
+
+            Map<Country, PriceTable> tables = new EnumMap<>(Country.class);
+            for (int i = 0; i < futures.size(); i++) {
+                PriceTable table = await(futures.get(i));
+                if (table != null) {
+                    tables.put(requested.get(i), table);
+                }
+            }
+
+            return new PriceMatrix(tables, System.currentTimeMillis());
+        } finally {
+            // Cancels the remaining requests if loading failed
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetches the price list of the country.
+     *
+     * @return price list, null if the API doesn't know or support the
+     * country.
+     */
+    private PriceTable fetch(Country country) throws MessenteException {
+
+        try {
+            return loader.load(country);
+        } catch (ResponseException ex) {
+            ResponseCode code = ex.getResponseCode();
+            if (code == ResponseCode.UNKNOWN_COUNTRY
+                    || code == ResponseCode.COUNTRY_NOT_SUPPORTED) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    private static PriceTable await(Future<PriceTable> future) throws MessenteException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MessenteException("Interrupted while loading price matrix!", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof MessenteException) {
+                throw (MessenteException) ex.getCause();
+            }
+            throw new MessenteException("Failed to load price matrix!", ex.getCause());
+        }
+    }
+}
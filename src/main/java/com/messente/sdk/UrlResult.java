@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.RequestError;
+import com.messente.sdk.exception.MessenteException;
+
+import java.net.URL;
+
+/**
+ * Immutable result of building an API request URL.
+ *
+ * Invalid requests are reported with a {@link RequestError} instead of an
+ * exception, so bulk processing can skip bad rows without the cost of
+ * capturing stack traces.
+ *
+ * @author Lennar Kallas
+ */
+public final class UrlResult {
+
+    private final URL url;
+    private final String recipient;
+    private final RequestError error;
+    private final String message;
+
+    private UrlResult(URL url, String recipient, RequestError error, String message) {
+        this.url = url;
+        this.recipient = recipient;
+        this.error = error;
+        this.message = message;
+    }
+
+    static UrlResult of(URL url) {
+        return of(url, null);
+    }
+
+    static UrlResult of(URL url, String recipient) {
+        return new UrlResult(url, recipient, null, null);
+    }
+
+    static UrlResult error(RequestError error, String message) {
+        return new UrlResult(null, null, error, message);
+    }
+
+    /**
+     * Gets whether the URL was built successfully.
+     *
+     * @return true if the request is valid.
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Gets the built URL.
+     *
+     * @return request URL, null if the request is invalid.
+     */
+    public URL getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the normalized phone number of the recipient the URL was built
+     * for.
+     *
+     * @return recipient's phone number, null if the request has no recipient
+     * or is invalid.
+     */
+    String getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Gets the reason why the URL couldn't be built.
+     *
+     * @return error, null if the request is valid.
+     */
+    public RequestError getError() {
+        return error;
+    }
+
+    /**
+     * Gets the detailed explanation of the error.
+     *
+     * @return error message, null if the request is valid.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the built URL or throws the error.
+     *
+     * @return request URL.
+     * @throws MessenteException without stack trace if the request is
+     * invalid.
+     */
+    public URL getUrlOrThrow() throws MessenteException {
+        if (error != null) {
+            throw MessenteException.stackless(message);
+        }
+        return url;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? url.toString() : message;
+    }
+}
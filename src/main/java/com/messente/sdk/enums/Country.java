@@ -15,6 +15,10 @@
  */
 package com.messente.sdk.enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Enumeration of supported country codes.
  *
@@ -24,230 +28,278 @@ package com.messente.sdk.enums;
  */
 public enum Country {
 
-    ABKHAZIA("AB"),
-    AFGHANISTAN("AF"),
-    ALBANIA("AL"),
-    ALGERIA("DZ"),
-    AMERICAN_SAMOA("AS"),
-    ANDORRA("AD"),
-    ANGOLA("AO"),
-    ANGUILLA("AI"),
-    ANTIGUA_AND_BARBUDA("AG"),
-    ARGENTINA("AR"),
-    ARMENIA("AM"),
-    ARUBA("AW"),
-    AUSTRALIA("AU"),
-    AUSTRIA("AT"),
-    AZERBAIJAN("AZ"),
-    BAHAMAS("BS"),
-    BAHRAIN("BH"),
-    BANGLADESH("BD"),
-    BARBADOS("BB"),
-    BELARUS("BY"),
-    BELGIUM("BE"),
-    BELIZE("BZ"),
-    BENIN("BJ"),
-    BERMUDA("BM"),
-    BHUTAN("BT"),
-    BOLIVIA("BO"),
-    BOSNIA_AND_HERZEGOVINA("BA"),
-    BOTSWANA("BW"),
-    BRAZIL("BR"),
-    BRITISH_VIRGIN_ISLANDS("VG"),
-    BRUNEI("BN"),
-    BULGARIA("BG"),
-    BURKINA_FASO("BF"),
-    BURMA_MYANMAR("MM"),
-    BURUNDI("BI"),
-    CAMBODIA("KH"),
-    CAMEROON("CM"),
-    CANADA("CA"),
-    CAPE_VERDE("CV"),
-    CAYMAN_ISLANDS("KY"),
-    CENTRAL_AFRICAN_REPUBLIC("CF"),
-    CHAD("TD"),
-    CHILE("CL"),
-    CHINA("CN"),
-    COLOMBIA("CO"),
-    COMOROS("KM"),
-    COOK_ISLANDS("CK"),
-    CROATIA("HR"),
-    CUBA("CU"),
-    CYPRUS("CY"),
-    CZECH_REPUBLIC("CZ"),
-    DEMOCRATIC_REPUBLIC_OF_THE_CONGO("CD"),
-    DENMARK("DK"),
-    DJIBOUTI("DJ"),
-    DOMINICA("DM"),
-    DOMINICAN_REPUBLIC("DO"),
-    ECUADOR("EC"),
-    EGYPT("EG"),
-    EL_SALVADOR("SV"),
-    EQUATORIAL_GUINEA("GQ"),
-    ERITREA("ER"),
-    ESTONIA("EE"),
-    ETHIOPIA("ET"),
-    FALKLAND_ISLANDS("FK"),
-    FAROE_ISLANDS("FO"),
-    FIJI("FJ"),
-    FINLAND("FI"),
-    FRANCE("FR"),
-    FRENCH_POLYNESIA("PF"),
-    GABON("GA"),
-    GAMBIA("GM"),
-    GEORGIA("GE"),
-    GERMANY("DE"),
-    GHANA("GH"),
-    GIBRALTAR("GI"),
-    GREECE("GR"),
-    GREENLAND("GL"),
-    GRENADA("GD"),
-    GUADELOUPE("GP"),
-    GUAM("GU"),
-    GUATEMALA("GT"),
-    GUINEA("GN"),
-    GUINEA_BISSAU("GW"),
-    GUYANA("GY"),
-    HAITI("HT"),
-    HONDURAS("HN"),
-    HONG_KONG("HK"),
-    HUNGARY("HU"),
-    ICELAND("IS"),
-    INDIA("IN"),
-    INDONESIA("ID"),
-    IRAN("IR"),
-    IRAQ("IQ"),
-    IRELAND("IE"),
-    ISRAEL("IL"),
-    ITALY("IT"),
-    IVORY_COAST("CI"),
-    JAMAICA("JM"),
-    JAPAN("JP"),
-    JORDAN("JO"),
-    KAZAKHSTAN("KZ"),
-    KENYA("KE"),
-    KIRIBATI("KI"),
-    KUWAIT("KW"),
-    KYRGYZSTAN("KG"),
-    LAOS("LA"),
-    LATVIA("LV"),
-    LEBANON("LB"),
-    LESOTHO("LS"),
-    LIBERIA("LR"),
-    LIBYA("LY"),
-    LIECHTENSTEIN("LI"),
-    LITHUANIA("LT"),
-    LUXEMBOURG("LU"),
-    MACAU("MO"),
-    MACEDONIA("MK"),
-    MADAGASCAR("MG"),
-    MALAWI("MW"),
-    MALAYSIA("MY"),
-    MALDIVES("MV"),
-    MALI("ML"),
-    MALTA("MT"),
-    MARSHALL_ISLANDS("MH"),
-    MAURITANIA("MR"),
-    MAURITIUS("MU"),
-    MEXICO("MX"),
-    MICRONESIA("FM"),
-    MOLDOVA("MD"),
-    MONACO("MC"),
-    MONGOLIA("MN"),
-    MONTENEGRO("ME"),
-    MONTSERRAT("MS"),
-    MOROCCO("MA"),
-    MOZAMBIQUE("MZ"),
-    NAMIBIA("NA"),
-    NAURU("NR"),
-    NEPAL("NP"),
-    NETHERLANDS("NL"),
-    NETHERLANDS_ANTILLES("AN"),
-    NEW_CALEDONIA("NC"),
-    NEW_ZEALAND("NZ"),
-    NICARAGUA("NI"),
-    NIGER("NE"),
-    NIGERIA("NG"),
-    NORTHERN_MARIANA_ISLANDS("MP"),
-    NORTH_KOREA("KP"),
-    NORWAY("NO"),
-    OMAN("OM"),
-    PAKISTAN("PK"),
-    PALAU("PW"),
-    PANAMA("PA"),
-    PAPUA_NEW_GUINEA("PG"),
-    PARAGUAY("PY"),
-    PERU("PE"),
-    PHILIPPINES("PH"),
-    POLAND("PL"),
-    PORTUGAL("PT"),
-    PUERTO_RICO("PR"),
-    QATAR("QA"),
-    REPUBLIC_OF_THE_CONGO("CG"),
-    REUNION_FRANCE("RE"),
-    ROMANIA("RO"),
-    RUSSIA("RU"),
-    RWANDA("RW"),
-    SAINT_KITTS_AND_NEVIS("KN"),
-    SAINT_LUCIA("LC"),
-    SAINT_PIERRE_AND_MIQUELON("PM"),
-    SAINT_VINCENT_AND_THE_GRENADINES("VC"),
-    SAMOA("WS"),
-    SAN_MARINO("SM"),
-    SAO_TOME_AND_PRINCIPE("ST"),
-    SAUDI_ARABIA("SA"),
-    SENEGAL("SN"),
-    SERBIA("RS"),
-    SEYCHELLES("SC"),
-    SIERRA_LEONE("SL"),
-    SINGAPORE("SG"),
-    SLOVAKIA("SK"),
-    SLOVENIA("SI"),
-    SOLOMON_ISLANDS("SB"),
-    SOMALIA("SO"),
-    SOUTH_AFRICA("ZA"),
-    SOUTH_KOREA("KR"),
-    SOUTH_SUDAN("SS"),
-    SPAIN("ES"),
-    SRI_LANKA("LK"),
-    SUDAN("SD"),
-    SURINAME("SR"),
-    SWAZILAND("SZ"),
-    SWEDEN("SE"),
-    SWITZERLAND("CH"),
-    SYRIA("SY"),
-    TAIWAN("TW"),
-    TAJIKISTAN("TJ"),
-    TANZANIA("TZ"),
-    THAILAND("TH"),
-    TIMOR_LESTE("TM"),
-    TOGO("TG"),
-    TONGA("TL"),
-    TRINIDAD_AND_TOBAGO("TT"),
-    TUNISIA("TO"),
-    TURKEY("TR"),
-    TURKMENISTAN("TN"),
-    TURKS_AND_CAICOS_ISLANDS("TC"),
-    UGANDA("UG"),
-    UKRAINE("UA"),
-    UNITED_ARAB_EMIRATES("AE"),
-    UNITED_KINGDOM("GB"),
-    UNITED_STATES("US"),
-    URUGUAY("UY"),
-    US_VIRGIN_ISLANDS("VI"),
-    UZBEKISTAN("UZ"),
-    VANUATU("VU"),
-    VENEZUELA("VE"),
-    VIETNAM("VN"),
-    WALLIS_AND_FUTUNA("WF"),
-    YEMEN("YE"),
-    ZAMBIA("ZM"),
-    ZIMBABWE("ZW");
+    ABKHAZIA("AB", "7840", "7940"),
+    AFGHANISTAN("AF", "93"),
+    ALBANIA("AL", "355"),
+    ALGERIA("DZ", "213"),
+    AMERICAN_SAMOA("AS", "1684"),
+    ANDORRA("AD", "376"),
+    ANGOLA("AO", "244"),
+    ANGUILLA("AI", "1264"),
+    ANTIGUA_AND_BARBUDA("AG", "1268"),
+    ARGENTINA("AR", "54"),
+    ARMENIA("AM", "374"),
+    ARUBA("AW", "297"),
+    AUSTRALIA("AU", "61"),
+    AUSTRIA("AT", "43"),
+    AZERBAIJAN("AZ", "994"),
+    BAHAMAS("BS", "1242"),
+    BAHRAIN("BH", "973"),
+    BANGLADESH("BD", "880"),
+    BARBADOS("BB", "1246"),
+    BELARUS("BY", "375"),
+    BELGIUM("BE", "32"),
+    BELIZE("BZ", "501"),
+    BENIN("BJ", "229"),
+    BERMUDA("BM", "1441"),
+    BHUTAN("BT", "975"),
+    BOLIVIA("BO", "591"),
+    BOSNIA_AND_HERZEGOVINA("BA", "387"),
+    BOTSWANA("BW", "267"),
+    BRAZIL("BR", "55"),
+    BRITISH_VIRGIN_ISLANDS("VG", "1284"),
+    BRUNEI("BN", "673"),
+    BULGARIA("BG", "359"),
+    BURKINA_FASO("BF", "226"),
+    BURMA_MYANMAR("MM", "95"),
+    BURUNDI("BI", "257"),
+    CAMBODIA("KH", "855"),
+    CAMEROON("CM", "237"),
+    CANADA("CA",
+            "1204", "1226", "1236", "1249", "1250", "1263", "1289", "1306",
+            "1343", "1354", "1365", "1367", "1368", "1382", "1403", "1416",
+            "1418", "1428", "1431", "1437", "1438", "1450", "1468", "1474",
+            "1506", "1514", "1519", "1548", "1579", "1581", "1584", "1587",
+            "1604", "1613", "1639", "1647", "1672", "1683", "1705", "1709",
+            "1742", "1753", "1778", "1780", "1782", "1807", "1819", "1825",
+            "1867", "1873", "1879", "1902", "1905"),
+    CAPE_VERDE("CV", "238"),
+    CAYMAN_ISLANDS("KY", "1345"),
+    CENTRAL_AFRICAN_REPUBLIC("CF", "236"),
+    CHAD("TD", "235"),
+    CHILE("CL", "56"),
+    CHINA("CN", "86"),
+    COLOMBIA("CO", "57"),
+    COMOROS("KM", "269"),
+    COOK_ISLANDS("CK", "682"),
+    CROATIA("HR", "385"),
+    CUBA("CU", "53"),
+    CYPRUS("CY", "357"),
+    CZECH_REPUBLIC("CZ", "420"),
+    DEMOCRATIC_REPUBLIC_OF_THE_CONGO("CD", "243"),
+    DENMARK("DK", "45"),
+    DJIBOUTI("DJ", "253"),
+    DOMINICA("DM", "1767"),
+    DOMINICAN_REPUBLIC("DO", "1809", "1829", "1849"),
+    ECUADOR("EC", "593"),
+    EGYPT("EG", "20"),
+    EL_SALVADOR("SV", "503"),
+    EQUATORIAL_GUINEA("GQ", "240"),
+    ERITREA("ER", "291"),
+    ESTONIA("EE", "372"),
+    ETHIOPIA("ET", "251"),
+    FALKLAND_ISLANDS("FK", "500"),
+    FAROE_ISLANDS("FO", "298"),
+    FIJI("FJ", "679"),
+    FINLAND("FI", "358"),
+    FRANCE("FR", "33"),
+    FRENCH_POLYNESIA("PF", "689"),
+    GABON("GA", "241"),
+    GAMBIA("GM", "220"),
+    GEORGIA("GE", "995"),
+    GERMANY("DE", "49"),
+    GHANA("GH", "233"),
+    GIBRALTAR("GI", "350"),
+    GREECE("GR", "30"),
+    GREENLAND("GL", "299"),
+    GRENADA("GD", "1473"),
+    GUADELOUPE("GP", "590"),
+    GUAM("GU", "1671"),
+    GUATEMALA("GT", "502"),
+    GUINEA("GN", "224"),
+    GUINEA_BISSAU("GW", "245"),
+    GUYANA("GY", "592"),
+    HAITI("HT", "509"),
+    HONDURAS("HN", "504"),
+    HONG_KONG("HK", "852"),
+    HUNGARY("HU", "36"),
+    ICELAND("IS", "354"),
+    INDIA("IN", "91"),
+    INDONESIA("ID", "62"),
+    IRAN("IR", "98"),
+    IRAQ("IQ", "964"),
+    IRELAND("IE", "353"),
+    ISRAEL("IL", "972"),
+    ITALY("IT", "39"),
+    IVORY_COAST("CI", "225"),
+    JAMAICA("JM", "1876", "1658"),
+    JAPAN("JP", "81"),
+    JORDAN("JO", "962"),
+    KAZAKHSTAN("KZ", "76", "77"),
+    KENYA("KE", "254"),
+    KIRIBATI("KI", "686"),
+    KUWAIT("KW", "965"),
+    KYRGYZSTAN("KG", "996"),
+    LAOS("LA", "856"),
+    LATVIA("LV", "371"),
+    LEBANON("LB", "961"),
+    LESOTHO("LS", "266"),
+    LIBERIA("LR", "231"),
+    LIBYA("LY", "218"),
+    LIECHTENSTEIN("LI", "423"),
+    LITHUANIA("LT", "370"),
+    LUXEMBOURG("LU", "352"),
+    MACAU("MO", "853"),
+    MACEDONIA("MK", "389"),
+    MADAGASCAR("MG", "261"),
+    MALAWI("MW", "265"),
+    MALAYSIA("MY", "60"),
+    MALDIVES("MV", "960"),
+    MALI("ML", "223"),
+    MALTA("MT", "356"),
+    MARSHALL_ISLANDS("MH", "692"),
+    MAURITANIA("MR", "222"),
+    MAURITIUS("MU", "230"),
+    MEXICO("MX", "52"),
+    MICRONESIA("FM", "691"),
+    MOLDOVA("MD", "373"),
+    MONACO("MC", "377"),
+    MONGOLIA("MN", "976"),
+    MONTENEGRO("ME", "382"),
+    MONTSERRAT("MS", "1664"),
+    MOROCCO("MA", "212"),
+    MOZAMBIQUE("MZ", "258"),
+    NAMIBIA("NA", "264"),
+    NAURU("NR", "674"),
+    NEPAL("NP", "977"),
+    NETHERLANDS("NL", "31"),
+    NETHERLANDS_ANTILLES("AN", "599"),
+    NEW_CALEDONIA("NC", "687"),
+    NEW_ZEALAND("NZ", "64"),
+    NICARAGUA("NI", "505"),
+    NIGER("NE", "227"),
+    NIGERIA("NG", "234"),
+    NORTHERN_MARIANA_ISLANDS("MP", "1670"),
+    NORTH_KOREA("KP", "850"),
+    NORWAY("NO", "47"),
+    OMAN("OM", "968"),
+    PAKISTAN("PK", "92"),
+    PALAU("PW", "680"),
+    PANAMA("PA", "507"),
+    PAPUA_NEW_GUINEA("PG", "675"),
+    PARAGUAY("PY", "595"),
+    PERU("PE", "51"),
+    PHILIPPINES("PH", "63"),
+    POLAND("PL", "48"),
+    PORTUGAL("PT", "351"),
+    PUERTO_RICO("PR", "1787", "1939"),
+    QATAR("QA", "974"),
+    REPUBLIC_OF_THE_CONGO("CG", "242"),
+    REUNION_FRANCE("RE", "262"),
+    ROMANIA("RO", "40"),
+    RUSSIA("RU", "7"),
+    RWANDA("RW", "250"),
+    SAINT_KITTS_AND_NEVIS("KN", "1869"),
+    SAINT_LUCIA("LC", "1758"),
+    SAINT_PIERRE_AND_MIQUELON("PM", "508"),
+    SAINT_VINCENT_AND_THE_GRENADINES("VC", "1784"),
+    SAMOA("WS", "685"),
+    SAN_MARINO("SM", "378"),
+    SAO_TOME_AND_PRINCIPE("ST", "239"),
+    SAUDI_ARABIA("SA", "966"),
+    SENEGAL("SN", "221"),
+    SERBIA("RS", "381"),
+    SEYCHELLES("SC", "248"),
+    SIERRA_LEONE("SL", "232"),
+    SINGAPORE("SG", "65"),
+    SLOVAKIA("SK", "421"),
+    SLOVENIA("SI", "386"),
+    SOLOMON_ISLANDS("SB", "677"),
+    SOMALIA("SO", "252"),
+    SOUTH_AFRICA("ZA", "27"),
+    SOUTH_KOREA("KR", "82"),
+    SOUTH_SUDAN("SS", "211"),
+    SPAIN("ES", "34"),
+    SRI_LANKA("LK", "94"),
+    SUDAN("SD", "249"),
+    SURINAME("SR", "597"),
+    SWAZILAND("SZ", "268"),
+    SWEDEN("SE", "46"),
+    SWITZERLAND("CH", "41"),
+    SYRIA("SY", "963"),
+    TAIWAN("TW", "886"),
+    TAJIKISTAN("TJ", "992"),
+    TANZANIA("TZ", "255"),
+    THAILAND("TH", "66"),
+    TIMOR_LESTE("TL", "670"),
+    TOGO("TG", "228"),
+    TONGA("TO", "676"),
+    TRINIDAD_AND_TOBAGO("TT", "1868"),
+    TUNISIA("TN", "216"),
+    TURKEY("TR", "90"),
+    TURKMENISTAN("TM", "993"),
+    TURKS_AND_CAICOS_ISLANDS("TC", "1649"),
+    UGANDA("UG", "256"),
+    UKRAINE("UA", "380"),
+    UNITED_ARAB_EMIRATES("AE", "971"),
+    UNITED_KINGDOM("GB", "44"),
+    UNITED_STATES("US", "1"),
+    URUGUAY("UY", "598"),
+    US_VIRGIN_ISLANDS("VI", "1340"),
+    UZBEKISTAN("UZ", "998"),
+    VANUATU("VU", "678"),
+    VENEZUELA("VE", "58"),
+    VIETNAM("VN", "84"),
+    WALLIS_AND_FUTUNA("WF", "681"),
+    YEMEN("YE", "967"),
+    ZAMBIA("ZM", "260"),
+    ZIMBABWE("ZW", "263");
 
     private final String code;
+    private final String[] diallingCodes;
+
+    /**
+     * Countries by ISO 3166-1 alpha-2 code.
+     */
+    private static final Map<String, Country> BY_ISO_CODE = new HashMap<>();
 
-    private Country(final String code) {
+    static {
+        for (Country country : values()) {
+            BY_ISO_CODE.put(country.code, country);
+        }
+    }
+
+    private Country(final String code, final String... diallingCodes) {
         this.code = code;
+        this.diallingCodes = diallingCodes;
+    }
+
+    /**
+     * Gets the international dialling codes of the country. Countries that
+     * share a country code (North American Numbering Plan, +7) are listed
+     * with the area code prefixes that identify them.
+     *
+     * @return dialling codes without '+' prefix.
+     */
+    public String[] getDiallingCodes() {
+        return diallingCodes.clone();
+    }
+
+    /**
+     * Gets the country by ISO 3166-1 alpha-2 code.
+     *
+     * @param isoCode two letter country code, for example "EE".
+     * @return country with given code, null if there's no such country.
+     */
+    public static Country fromIsoCode(String isoCode) {
+
+        if (isoCode == null) {
+            return null;
+        }
+
+        Country country = BY_ISO_CODE.get(isoCode);
+        return country != null
+                ? country : BY_ISO_CODE.get(isoCode.toUpperCase(Locale.ROOT));
     }
 
     @Override
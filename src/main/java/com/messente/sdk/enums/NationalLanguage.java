@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+/**
+ * Enumeration of GSM 03.38 national languages that have locking shift or
+ * single shift tables.
+ *
+ * @see
+ * <a href="https://en.wikipedia.org/wiki/GSM_03.38#National_language_shift_tables">National
+ * language shift tables</a>
+ * @author Jaanus Rõõmus
+ */
+public enum NationalLanguage {
+
+    TURKISH(1),
+    SPANISH(2),
+    PORTUGUESE(3),
+    BENGALI(4),
+    GUJARATI(5),
+    HINDI(6),
+    KANNADA(7),
+    MALAYALAM(8),
+    ORIYA(9),
+    PUNJABI(10),
+    TAMIL(11),
+    TELUGU(12),
+    URDU(13);
+
+    private final int id;
+
+    private NationalLanguage(final int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the language identifier used in User Data Header national
+     * language shift information elements.
+     *
+     * @return national language identifier.
+     */
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+/**
+ * Enumeration of reasons why a phone number can't be normalized to E.164
+ * format.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/E.164">E.164</a>
+ * @author Lennar Kallas
+ */
+public enum PhoneNumberError {
+
+    EMPTY("Phone number is not specified"),
+    INVALID_CHARACTER("Phone number contains an invalid character"),
+    INVALID_COUNTRY_CODE("Phone number has an invalid country code"),
+    TOO_SHORT("Phone number is too short"),
+    TOO_LONG("Phone number exceeds the E.164 maximum of 15 digits");
+
+    private final String message;
+
+    private PhoneNumberError(final String message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets the human readable explanation of the error.
+     *
+     * @return error explanation.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+/**
+ * Enumeration of reasons why an API request can't be built.
+ *
+ * @author Lennar Kallas
+ */
+public enum RequestError {
+
+    MISSING_RECIPIENT("Recipient is not specified"),
+    INVALID_RECIPIENT("Recipient's phone number is invalid"),
+    MISSING_TEXT("SMS text is not specified"),
+    INVALID_TEMPLATE("Verification message template is missing '<PIN>' placeholder"),
+    MISSING_VERIFICATION_ID("Verification ID is not specified"),
+    MISSING_PIN("PIN is not specified"),
+    INVALID_COOKIE("Cookie is empty"),
+    INVALID_PARAMETER("Request parameter can't be encoded");
+
+    private final String message;
+
+    private RequestError(final String message) {
+        this.message = message;
+    }
+
+    /**
+     * Gets the human readable explanation of the error.
+     *
+     * @return error explanation.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+import com.messente.sdk.response.MessenteResponse;
+
+/**
+ * Enumeration of known Messente API error and failure codes.
+ *
+ * @author Lennar Kallas
+ */
+public enum ResponseCode {
+
+    ACCESS_RESTRICTED(ResponseStatus.ERROR, 101, MessenteResponse.ACCESS_RESTRICTED),
+    PARAMETERS_WRONG_OR_MISSING(ResponseStatus.ERROR, 102,
+            MessenteResponse.PARAMETERS_WRONG_OR_MISSING),
+    INVALID_IP(ResponseStatus.ERROR, 103, MessenteResponse.INVALID_IP),
+    UNKNOWN_COUNTRY(ResponseStatus.ERROR, 104, MessenteResponse.UNKNOWN_COUNTRY),
+    COUNTRY_NOT_SUPPORTED(ResponseStatus.ERROR, 105, MessenteResponse.COUNTRY_NOT_SUPPORTED),
+    UNKNOWN_MESSAGE_ID(ResponseStatus.ERROR, 107, MessenteResponse.UNKNOWN_MESSAGE_ID),
+    BLACKLISTED_NR(ResponseStatus.ERROR, 108, MessenteResponse.BLACKLISTED_NR),
+    INVALID_TEMPLATE(ResponseStatus.ERROR, 109, MessenteResponse.INVALID_TEMPLATE),
+    MISSING_VERIFICATION_ID(ResponseStatus.ERROR, 110, MessenteResponse.MISSING_VERIFICATION_ID),
+    INVALID_SENDER(ResponseStatus.ERROR, 111, MessenteResponse.INVALID_SENDER),
+    NO_DLR(ResponseStatus.FAILED, 102, MessenteResponse.NO_DLR),
+    SERVER_FAILURE(ResponseStatus.FAILED, 209, MessenteResponse.SERVER_FAILURE);
+
+    /**
+     * Codes indexed by status ordinal and code - FIRST_CODE.
+     */
+    private static final int FIRST_CODE = 100;
+    private static final ResponseCode[][] CODES
+            = new ResponseCode[ResponseStatus.values().length][];
+
+    static {
+        for (ResponseStatus status : ResponseStatus.values()) {
+            int max = -1;
+            for (ResponseCode code : values()) {
+                if (code.status == status) {
+                    max = Math.max(max, code.code - FIRST_CODE);
+                }
+            }
+            CODES[status.ordinal()] = new ResponseCode[max + 1];
+        }
+        for (ResponseCode code : values()) {
+            CODES[code.status.ordinal()][code.code - FIRST_CODE] = code;
+        }
+    }
+
+    private final ResponseStatus status;
+    private final int code;
+    private final String message;
+
+    private ResponseCode(final ResponseStatus status, final int code, final String message) {
+        this.status = status;
+        this.code = code;
+        this.message = message;
+    }
+
+    /**
+     * Gets the status of responses with this code.
+     *
+     * @return response status.
+     */
+    public ResponseStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the numeric code.
+     *
+     * @return code as it appears in the response, e.g. 101 in "ERROR 101".
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the human readable explanation of the code.
+     *
+     * @return explanation.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets whether the request should be retried with the backup server.
+     *
+     * @return true for server failures.
+     */
+    public boolean isRetryable() {
+        return this == SERVER_FAILURE;
+    }
+
+    /**
+     * Finds the known code.
+     *
+     * @param status response status.
+     * @param code numeric code.
+     * @return response code, null if the code is not known.
+     */
+    public static ResponseCode of(ResponseStatus status, int code) {
+
+        ResponseCode[] codes = CODES[status.ordinal()];
+        int index = code - FIRST_CODE;
+        return index >= 0 && index < codes.length ? codes[index] : null;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+/**
+ * Enumeration of Messente API response statuses.
+ *
+ * @author Lennar Kallas
+ */
+public enum ResponseStatus {
+
+    /**
+     * Successful response, with "OK" prefix or without any prefix (e.g. price
+     * list).
+     */
+    OK("OK "),
+    /**
+     * Request was rejected, response starts with "ERROR".
+     */
+    ERROR("ERROR "),
+    /**
+     * Request failed, response starts with "FAILED".
+     */
+    FAILED("FAILED "),
+    /**
+     * Server returned no content.
+     */
+    EMPTY("");
+
+    private final String prefix;
+
+    private ResponseStatus(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Gets the prefix of responses with this status.
+     *
+     * @return response prefix including the separating space, empty for
+     * {@link #EMPTY}.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+}
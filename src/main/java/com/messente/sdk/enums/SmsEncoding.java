@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.enums;
+
+/**
+ * Enumeration of SMS text encodings.
+ *
+ * @author Jaanus Rõõmus
+ */
+public enum SmsEncoding {
+
+    GSM_7BIT(0),
+    UCS2(2);
+
+    private final int charset;
+
+    private SmsEncoding(final int charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Gets the charset value as returned by
+     * {@link com.messente.sdk.utils.SmsLengthCalculator#getCharset(String)}.
+     *
+     * @return 0 for GSM 7-bit charset, 2 for Unicode (UCS-2).
+     */
+    public int getCharset() {
+        return charset;
+    }
+}
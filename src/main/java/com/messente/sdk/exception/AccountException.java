@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.exception;
+
+import com.messente.sdk.enums.ResponseCode;
+
+/**
+ * Thrown without a request to the API when the account is known to be
+ * unusable, i.e. the API has rejected the credentials ("ERROR 101") or the
+ * IP address ("ERROR 103").
+ *
+ * @author Lennar Kallas
+ */
+public class AccountException extends ResponseException {
+
+    private static final long serialVersionUID = -3650361452283420716L;
+
+    public AccountException(ResponseCode responseCode) {
+        super(responseCode, "Request blocked! " + responseCode.getMessage());
+    }
+}
@@ -18,6 +18,9 @@ package com.messente.sdk.exception;
 /**
  * Exception wrapped as MessenteException.
  *
+ * Expected errors, such as invalid input, can be created with
+ * {@link #stackless(String)} to skip capturing the stack trace.
+ *
  * @author Lennar Kallas
  */
 public class MessenteException extends Exception {
@@ -43,4 +46,15 @@ public class MessenteException extends Exception {
         super(message, cause, enableSuppression, writableStackTrace);
     }
 
+    /**
+     * Creates exception for an expected error without stack trace and
+     * suppressed exceptions.
+     *
+     * @param message error message.
+     * @return exception without stack trace.
+     */
+    public static MessenteException stackless(String message) {
+        return new MessenteException(message, null, false, false);
+    }
+
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.exception;
+
+import com.messente.sdk.enums.ResponseCode;
+
+/**
+ * Thrown when the API returns an error response where a result is expected,
+ * e.g. "ERROR 104" instead of a price list. Created without stack trace.
+ *
+ * @author Lennar Kallas
+ */
+public class ResponseException extends MessenteException {
+
+    private static final long serialVersionUID = 4712385962016553042L;
+
+    private final ResponseCode responseCode;
+
+    public ResponseException(ResponseCode responseCode, String message) {
+        super(message, null, false, false);
+        this.responseCode = responseCode;
+    }
+
+    /**
+     * Gets the error returned by the API.
+     *
+     * @return response code, null if the API returned an unknown error.
+     */
+    public ResponseCode getResponseCode() {
+        return responseCode;
+    }
+}
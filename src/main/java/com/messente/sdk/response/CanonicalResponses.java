@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.response;
+
+import com.messente.sdk.enums.ResponseCode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shared instances of the fixed Messente API replies.
+ *
+ * Replies such as "OK SENT" or "ERROR 102" don't carry any request specific
+ * data, so one immutable instance of each is enough. Reply bodies are
+ * matched against the received bytes before any String is created.
+ *
+ * @author Lennar Kallas
+ */
+final class CanonicalResponses {
+
+    /**
+     * Delivery report states, replies of the response codes follow them in
+     * ordinal order.
+     */
+    private static final String[] DLR_STATES = {MessenteDeliveryStatus.SENT,
+        MessenteDeliveryStatus.DELIVERED, MessenteDeliveryStatus.FAILED};
+
+    private static final String[] BODIES;
+    private static final byte[][] BODY_BYTES;
+    private static final MessenteResponse[] RESPONSES;
+    private static final MessenteDeliveryStatus[] DELIVERY_STATUSES;
+
+    static {
+        ResponseCode[] codes = ResponseCode.values();
+
+        int count = DLR_STATES.length + codes.length;
+        BODIES = new String[count];
+        BODY_BYTES = new byte[count][];
+        RESPONSES = new MessenteResponse[count];
+        DELIVERY_STATUSES = new MessenteDeliveryStatus[count];
+
+        for (int i = 0; i < DLR_STATES.length; i++) {
+            BODIES[i] = MessenteResponse.ResponsePrefixes.OK + DLR_STATES[i];
+        }
+        for (int i = 0; i < codes.length; i++) {
+            BODIES[DLR_STATES.length + i] = codes[i].getStatus().getPrefix() + codes[i].getCode();
+        }
+
+        for (int i = 0; i < count; i++) {
+            BODY_BYTES[i] = BODIES[i].getBytes(StandardCharsets.US_ASCII);
+            RESPONSES[i] = new MessenteResponse(BODIES[i], 200);
+            DELIVERY_STATUSES[i] = new MessenteDeliveryStatus(BODIES[i], 200);
+        }
+    }
+
+    private CanonicalResponses() {
+    }
+
+    /**
+     * Finds the fixed reply of the body.
+     *
+     * @param body response body.
+     * @param length number of bytes in the body.
+     * @return index of the reply, -1 if the body is not a fixed reply.
+     */
+    static int indexOf(byte[] body, int length) {
+
+        for (int i = 0; i < BODY_BYTES.length; i++) {
+            byte[] candidate = BODY_BYTES[i];
+            if (candidate.length == length && candidate[0] == body[0]
+                    && matches(candidate, body)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the fixed reply of the response.
+     *
+     * @param response response body.
+     * @return index of the reply, -1 if the body is not a fixed reply.
+     */
+    static int indexOf(String response) {
+
+        if (response == null) {
+            return -1;
+        }
+        for (int i = 0; i < BODIES.length; i++) {
+            if (BODIES[i].equals(response)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the fixed reply of the code.
+     *
+     * @param code response code.
+     * @return index of the reply.
+     */
+    static int indexOf(ResponseCode code) {
+        return DLR_STATES.length + code.ordinal();
+    }
+
+    static MessenteResponse getResponse(int index) {
+        return RESPONSES[index];
+    }
+
+    static MessenteDeliveryStatus getDeliveryStatus(int index) {
+        return DELIVERY_STATUSES[index];
+    }
+
+    private static boolean matches(byte[] candidate, byte[] body) {
+        for (int i = candidate.length - 1; i > 0; i--) {
+            if (candidate[i] != body[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.messente.sdk.response;
 
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.enums.ResponseStatus;
+
 /**
  * Data structure for Messente delivery status.
  *
@@ -31,18 +34,38 @@ public class MessenteDeliveryStatus extends MessenteResponse {
         super(response, httpCode);
     }
 
+    /**
+     * Creates delivery status of the API response. Fixed replies like
+     * "OK DELIVERED" return a shared instance.
+     *
+     * @param response response of the delivery report request.
+     * @return delivery status object.
+     */
+    public static MessenteDeliveryStatus of(MessenteResponse response) {
+
+        if (response instanceof MessenteDeliveryStatus) {
+            return (MessenteDeliveryStatus) response;
+        }
+
+        if (response.getHttpResponseCode() == 200) {
+            int index = CanonicalResponses.indexOf(response.getRawResponse());
+            if (index >= 0) {
+                return CanonicalResponses.getDeliveryStatus(index);
+            }
+        }
+        return new MessenteDeliveryStatus(response.getRawResponse(),
+                response.getHttpResponseCode());
+    }
+
     @Override
     public boolean isSuccess() {
-        return (RESPONSE != null
-                && !RESPONSE.trim().isEmpty()
-                && !RESPONSE.startsWith(ResponsePrefixes.ERROR))
-                || RESPONSE.equals(ResponsePrefixes.FAILED + "102");
+        return getStatus() != ResponseStatus.ERROR && getStatus() != ResponseStatus.EMPTY;
     }
 
     @Override
     public String getResult() {
 
-        if (getRawResponse().equals(NO_DLR_YET)) {
+        if (getResponseCode() == ResponseCode.NO_DLR) {
             return NO_DLR_YET;
         }
 
@@ -15,9 +15,18 @@
  */
 package com.messente.sdk.response;
 
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.enums.ResponseStatus;
+
+import java.nio.charset.StandardCharsets;
+
 /**
  * Data structure for holding Messente API responses.
  *
+ * The status and code of the response are parsed once when the response is
+ * created. Responses are immutable and fixed replies are shared, see
+ * {@link #of(byte[], int, int)}.
+ *
  * @author Lennar Kallas
  */
 public class MessenteResponse {
@@ -25,6 +34,13 @@ public class MessenteResponse {
     protected final String RESPONSE;
     protected final int HTTP_RESPONSE_CODE;
 
+    private final ResponseStatus status;
+
+    /**
+     * Numeric code after the status prefix, -1 if there's none.
+     */
+    private final int code;
+
     public static final String ACCESS_RESTRICTED = "Access is restricted, "
             + "wrong credentials. Check the username and password values.";
 
@@ -76,6 +92,112 @@ public class MessenteResponse {
     public MessenteResponse(String response, int httpCode) {
         this.RESPONSE = response;
         this.HTTP_RESPONSE_CODE = httpCode;
+        this.status = parseStatus(response);
+        this.code = parseCode(response, status);
+    }
+
+    /**
+     * Creates response of the received body. Fixed replies like "ERROR 102"
+     * return a shared instance without decoding the body. Line breaks are
+     * removed from the body.
+     *
+     * @param body response body bytes in UTF-8.
+     * @param length number of bytes in the body.
+     * @param httpCode HTTP response code.
+     * @return response object.
+     */
+    public static MessenteResponse of(byte[] body, int length, int httpCode) {
+
+        length = trimLineBreaks(body, length);
+
+        if (httpCode == 200 && length > 0) {
+            int index = CanonicalResponses.indexOf(body, length);
+            if (index >= 0) {
+                return CanonicalResponses.getResponse(index);
+            }
+        }
+        return new MessenteResponse(decode(body, length), httpCode);
+    }
+
+    /**
+     * Gets the shared response of the known error or failure code.
+     *
+     * @param code response code.
+     * @return response, e.g. "ERROR 108" for
+     * {@link ResponseCode#BLACKLISTED_NR}.
+     */
+    public static MessenteResponse of(ResponseCode code) {
+        return CanonicalResponses.getResponse(CanonicalResponses.indexOf(code));
+    }
+
+    /**
+     * Gets the length of the body without trailing line breaks.
+     */
+    static int trimLineBreaks(byte[] body, int length) {
+        while (length > 0 && (body[length - 1] == '\n' || body[length - 1] == '\r')) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the body, joining lines like it's read line by line.
+     */
+    static String decode(byte[] body, int length) {
+
+        String response = new String(body, 0, length, StandardCharsets.UTF_8);
+        if (response.indexOf('\n') < 0 && response.indexOf('\r') < 0) {
+            return response;
+        }
+
+        StringBuilder b = new StringBuilder(response.length());
+        for (int i = 0; i < response.length(); i++) {
+            char c = response.charAt(i);
+            if (c != '\n' && c != '\r') {
+                b.append(c);
+            }
+        }
+        return b.toString();
+    }
+
+    private static ResponseStatus parseStatus(String response) {
+
+        if (response == null || response.trim().isEmpty()) {
+            return ResponseStatus.EMPTY;
+        }
+        if (response.startsWith(ResponsePrefixes.ERROR)) {
+            return ResponseStatus.ERROR;
+        }
+        if (response.startsWith(ResponsePrefixes.FAILED)) {
+            return ResponseStatus.FAILED;
+        }
+        return ResponseStatus.OK;
+    }
+
+    /**
+     * Parses the code of "ERROR nnn" and "FAILED nnn" responses.
+     */
+    private static int parseCode(String response, ResponseStatus status) {
+
+        if (status != ResponseStatus.ERROR && status != ResponseStatus.FAILED) {
+            return -1;
+        }
+
+        int start = status.getPrefix().length();
+        int length = response.length();
+        if (start == length || length - start > 9) {
+            return -1;
+        }
+
+        int code = 0;
+        for (int i = start; i < length; i++) {
+            int digit = response.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            code = code * 10 + digit;
+        }
+        return code;
     }
 
     /**
@@ -103,11 +225,35 @@ public class MessenteResponse {
      * FAILED).
      */
     public boolean isSuccess() {
+        return status == ResponseStatus.OK;
+    }
 
-        return RESPONSE != null
-                && !RESPONSE.trim().isEmpty()
-                && !RESPONSE.startsWith(ResponsePrefixes.ERROR)
-                && !RESPONSE.startsWith(ResponsePrefixes.FAILED);
+    /**
+     * Gets the status of the response.
+     *
+     * @return response status.
+     */
+    public ResponseStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the numeric code of error and failure responses.
+     *
+     * @return code, e.g. 101 for "ERROR 101", -1 if the response has no code.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the known code of error and failure responses.
+     *
+     * @return response code, null if the response has no code or the code is
+     * not known.
+     */
+    public ResponseCode getResponseCode() {
+        return code < 0 ? null : ResponseCode.of(status, code);
     }
 
     /**
@@ -173,6 +319,14 @@ public class MessenteResponse {
      * @return string with DLR status explanation.
      */
     protected String getDlrMessage() {
+
+        if (getResponseCode() == ResponseCode.NO_DLR) {
+            return NO_DLR;
+        }
+        if (status != ResponseStatus.OK) {
+            return null;
+        }
+
         switch (getRawResponse()) {
             case "OK SENT":
                 return DLR_SENT;
@@ -180,8 +334,6 @@ public class MessenteResponse {
                 return DLR_FAILED;
             case "OK DELIVERED":
                 return DLR_DELIVERED;
-            case "FAILED 102":
-                return NO_DLR;
         }
         return null;
     }
@@ -191,33 +343,8 @@ public class MessenteResponse {
      * @return string with failure explanation.
      */
     protected String getFailureMessage() {
-        switch (getRawResponse()) {
-            case "ERROR 101":
-                return MessenteResponse.ACCESS_RESTRICTED;
-            case "ERROR 102":
-                return MessenteResponse.PARAMETERS_WRONG_OR_MISSING;
-            case "ERROR 103":
-                return MessenteResponse.INVALID_IP;
-            case "ERROR 104":
-                return MessenteResponse.UNKNOWN_COUNTRY;
-            case "ERROR 105":
-                return MessenteResponse.COUNTRY_NOT_SUPPORTED;
-            case "ERROR 107":
-                return MessenteResponse.UNKNOWN_MESSAGE_ID;
-            case "ERROR 108":
-                return MessenteResponse.BLACKLISTED_NR;
-            case "ERROR 109":
-                return MessenteResponse.INVALID_TEMPLATE;
-            case "ERROR 110":
-                return MessenteResponse.MISSING_VERIFICATION_ID;
-            case "ERROR 111":
-                return MessenteResponse.INVALID_SENDER;
-            case "FAILED 102":
-                return MessenteResponse.NO_DLR;
-            case "FAILED 209":
-                return MessenteResponse.SERVER_FAILURE;
-        }
-        return RESPONSE;
+        ResponseCode responseCode = getResponseCode();
+        return responseCode != null ? responseCode.getMessage() : RESPONSE;
     }
 
     @Override
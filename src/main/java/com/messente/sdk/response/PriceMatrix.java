@@ -0,0 +1,355 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.response;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.exception.MessenteException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable price lists of many countries.
+ *
+ * The matrix can be saved to a compact binary snapshot file and memory-mapped
+ * back by other processes. Price lists of a mapped snapshot are decoded from
+ * the mapped file on first access, so mapping a snapshot is cheap even when
+ * only a few countries are used.
+ *
+ * @see com.messente.sdk.PriceMatrixLoader
+ * @author Lennar Kallas
+ */
+public final class PriceMatrix {
+
+    /**
+     * Snapshot file header: "MSPM" and format version.
+     */
+    private static final int MAGIC = 0x4D53504D;
+    private static final int VERSION = 1;
+
+    private static final int COUNTRY_COUNT = Country.values().length;
+
+    /**
+     * Price lists indexed by country ordinal. Entries of a mapped snapshot
+     * are filled in on first access.
+     */
+    private final PriceTable[] tables;
+
+    /**
+     * Mapped snapshot and offsets of the price lists in it indexed by
+     * country ordinal, -1 if the country is not present. Null if the matrix
+     * wasn't mapped from a snapshot.
+     */
+    private final ByteBuffer snapshot;
+    private final int[] offsets;
+
+    private final long createdAt;
+
+    /**
+     * Creates price matrix of the price lists.
+     *
+     * @param tables price lists by country.
+     * @param createdAt creation time of the price lists in milliseconds since
+     * epoch.
+     */
+    public PriceMatrix(Map<Country, PriceTable> tables, long createdAt) {
+
+        this.tables = new PriceTable[COUNTRY_COUNT];
+        for (Map.Entry<Country, PriceTable> entry : tables.entrySet()) {
+            this.tables[entry.getKey().ordinal()] = entry.getValue();
+        }
+        this.snapshot = null;
+        this.offsets = null;
+        this.createdAt = createdAt;
+    }
+
+    private PriceMatrix(ByteBuffer snapshot, int[] offsets, long createdAt) {
+        this.tables = new PriceTable[COUNTRY_COUNT];
+        this.snapshot = snapshot;
+        this.offsets = offsets;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the price list of the country.
+     *
+     * @param country country.
+     * @return price list, null if the matrix has no price list for the
+     * country.
+     */
+    public PriceTable get(Country country) {
+
+        int index = country.ordinal();
+        PriceTable table = tables[index];
+
+        if (table == null && offsets != null && offsets[index] >= 0) {
+            // Decoding twice in a race is harmless, tables are immutable
+            table = decode(snapshot.duplicate(), offsets[index]);
+            tables[index] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Gets the countries that have a price list in the matrix.
+     *
+     * @return set of countries.
+     */
+    public Set<Country> getCountries() {
+
+        Set<Country> countries = EnumSet.noneOf(Country.class);
+        for (Country country : Country.values()) {
+            if (tables[country.ordinal()] != null
+                    || (offsets != null && offsets[country.ordinal()] >= 0)) {
+                countries.add(country);
+            }
+        }
+        return Collections.unmodifiableSet(countries);
+    }
+
+    /**
+     * Gets the creation time of the price lists.
+     *
+     * @return milliseconds since epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Saves the matrix to a snapshot file. The file is written next to the
+     * target and moved in place, so processes mapping the target never see
+     * a partially written snapshot.
+     *
+     * @param file snapshot file.
+     * @throws MessenteException if the file can't be written.
+     */
+    public void save(Path file) throws MessenteException {
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = null;
+
+        try {
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                write(out);
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new MessenteException("Unable to save price matrix snapshot! "
+                    + ex.getMessage(), ex);
+        } finally {
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ex) {
+                // Temporary file is left behind
+            }
+        }
+    }
+
+    /**
+     * Writes the matrix in snapshot format.
+     *
+     * Layout (big-endian): magic, version, creation time, country count, then
+     * ISO code and data offset of each country, then the price lists. A price
+     * list is country, name, prefix, network count and for each network its
+     * code, code digits, price in micro units and name. Strings are stored as
+     * UTF-8 with a short length prefix, -1 for null.
+     */
+    private void write(OutputStream target) throws IOException {
+
+        List<PriceTable> present = new ArrayList<>();
+        List<Country> countries = new ArrayList<>();
+        for (Country country : Country.values()) {
+            PriceTable table = get(country);
+            if (table != null) {
+                present.add(table);
+                countries.add(country);
+            }
+        }
+
+        byte[][] encoded = new byte[present.size()][];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = encode(present.get(i));
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(createdAt);
+        out.writeInt(countries.size());
+
+        int headerLength = 4 + 4 + 8 + 4;
+        for (Country country : countries) {
+            headerLength += 2 + country.toString().getBytes(StandardCharsets.UTF_8).length + 4;
+        }
+
+        int offset = headerLength;
+        for (int i = 0; i < encoded.length; i++) {
+            writeString(out, countries.get(i).toString());
+            out.writeInt(offset);
+            offset += encoded[i].length;
+        }
+        for (byte[] table : encoded) {
+            out.write(table);
+        }
+        out.flush();
+    }
+
+    private static byte[] encode(PriceTable table) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        writeString(out, table.getCountry());
+        writeString(out, table.getName());
+        writeString(out, table.getPrefix());
+        out.writeInt(table.getNetworkCount());
+
+        for (int i = 0; i < table.getNetworkCount(); i++) {
+            out.writeInt(table.getMccMncCode(i));
+            out.writeByte(table.getMccMnc(i).length());
+            out.writeLong(table.getPriceMicros(i));
+            writeString(out, table.getNetworkName(i));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Memory-maps a snapshot file saved with {@link #save(Path)}. Only the
+     * header is read, price lists are decoded on first access.
+     *
+     * @param file snapshot file.
+     * @return price matrix backed by the mapped file.
+     * @throws MessenteException if the file can't be read or is not a price
+     * matrix snapshot.
+     */
+    public static PriceMatrix map(Path file) throws MessenteException {
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException ex) {
+            throw new MessenteException("Unable to map price matrix snapshot! "
+                    + ex.getMessage(), ex);
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new MessenteException("Not a price matrix snapshot: " + file);
+            }
+
+            long createdAt = buffer.getLong();
+            int count = buffer.getInt();
+            int[] offsets = new int[COUNTRY_COUNT];
+            Arrays.fill(offsets, -1);
+
+            for (int i = 0; i < count; i++) {
+                String isoCode = readString(buffer);
+                int offset = buffer.getInt();
+                Country country = Country.fromIsoCode(isoCode);
+
+                // Countries unknown to this SDK version are skipped
+                if (country != null) {
+                    if (offset < 0 || offset >= buffer.limit()) {
+                        throw new MessenteException("Corrupt price matrix snapshot: " + file);
+                    }
+                    offsets[country.ordinal()] = offset;
+                }
+            }
+
+            return new PriceMatrix(buffer, offsets, createdAt);
+        } catch (BufferUnderflowException ex) {
+            throw new MessenteException("Corrupt price matrix snapshot: " + file, ex);
+        }
+    }
+
+    private static PriceTable decode(ByteBuffer buffer, int offset) {
+
+        buffer.position(offset);
+
+        String country = readString(buffer);
+        String name = readString(buffer);
+        String prefix = readString(buffer);
+        int count = buffer.getInt();
+
+        int[] mccmnc = new int[count];
+        byte[] digits = new byte[count];
+        long[] prices = new long[count];
+        String[] networkNames = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            mccmnc[i] = buffer.getInt();
+            digits[i] = buffer.get();
+            prices[i] = buffer.getLong();
+            networkNames[i] = readString(buffer);
+        }
+
+        return new PriceTable(country, name, prefix, mccmnc, digits, networkNames, prices);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
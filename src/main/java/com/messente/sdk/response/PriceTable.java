@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.response;
+
+import java.util.Arrays;
+
+/**
+ * Immutable price list of a country.
+ *
+ * Networks are stored in parallel primitive arrays indexed from 0 to
+ * {@link #getNetworkCount()} - 1. Prices are kept in micro units (millionths
+ * of the account currency) to avoid floating point rounding.
+ *
+ * @see PriceTableParser
+ * @author Lennar Kallas
+ */
+public final class PriceTable {
+
+    /**
+     * Number of micro units in one currency unit.
+     */
+    public static final long MICROS = 1000000L;
+
+    private final String country;
+    private final String name;
+    private final String prefix;
+    private final int[] mccmnc;
+    private final byte[] mccmncDigits;
+    private final String[] networkNames;
+    private final long[] prices;
+
+    PriceTable(String country, String name, String prefix, int[] mccmnc,
+            byte[] mccmncDigits, String[] networkNames, long[] prices) {
+
+        this.country = country;
+        this.name = name;
+        this.prefix = prefix;
+        this.mccmnc = mccmnc;
+        this.mccmncDigits = mccmncDigits;
+        this.networkNames = networkNames;
+        this.prices = prices;
+    }
+
+    /**
+     * Gets the country code.
+     *
+     * @return ISO 3166-1 alpha-2 country code.
+     */
+    public String getCountry() {
+        return country;
+    }
+
+    /**
+     * Gets the country name.
+     *
+     * @return country name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the dialling code of the country.
+     *
+     * @return country calling code without '+'.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Gets the number of networks in the price list.
+     *
+     * @return network count.
+     */
+    public int getNetworkCount() {
+        return prices.length;
+    }
+
+    /**
+     * Gets the mobile network code of the network.
+     *
+     * @param index network index.
+     * @return MCC and MNC as a number.
+     */
+    public int getMccMncCode(int index) {
+        return mccmnc[index];
+    }
+
+    /**
+     * Gets the mobile network code of the network.
+     *
+     * @param index network index.
+     * @return MCC and MNC as they appear in the price list, e.g. "24801".
+     */
+    public String getMccMnc(int index) {
+
+        String code = Integer.toString(mccmnc[index]);
+        StringBuilder b = new StringBuilder(mccmncDigits[index]);
+        for (int i = code.length(); i < mccmncDigits[index]; i++) {
+            b.append('0');
+        }
+        return b.append(code).toString();
+    }
+
+    /**
+     * Gets the name of the network.
+     *
+     * @param index network index.
+     * @return network (operator) name.
+     */
+    public String getNetworkName(int index) {
+        return networkNames[index];
+    }
+
+    /**
+     * Gets the price of one SMS part in the network.
+     *
+     * @param index network index.
+     * @return price in micro units.
+     */
+    public long getPriceMicros(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Gets the price of one SMS part in the network.
+     *
+     * @param index network index.
+     * @return price in account currency.
+     */
+    public double getPrice(int index) {
+        return (double) prices[index] / MICROS;
+    }
+
+    /**
+     * Finds the network by its mobile network code.
+     *
+     * @param mccmnc MCC and MNC as a number.
+     * @return network index, -1 if the network is not in the price list.
+     */
+    public int indexOf(int mccmnc) {
+        for (int i = 0; i < this.mccmnc.length; i++) {
+            if (this.mccmnc[i] == mccmnc) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the highest price of one SMS part in the country.
+     *
+     * @return price in micro units, 0 if the price list has no networks.
+     */
+    public long getMaxPriceMicros() {
+        long max = 0;
+        for (long price : prices) {
+            max = Math.max(max, price);
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return ""
+                + "Country: " + country + "\n"
+                + "Name: " + name + "\n"
+                + "Prefix: " + prefix + "\n"
+                + "Networks: " + Arrays.toString(networkNames) + "\n"
+                + "Prices: " + Arrays.toString(prices);
+    }
+}
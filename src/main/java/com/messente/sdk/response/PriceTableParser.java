@@ -0,0 +1,729 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.response;
+
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.exception.ResponseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming parser of Messente price lists.
+ *
+ * Decodes JSON and XML price lists directly from the response stream into a
+ * {@link PriceTable} without reading the whole response into a string or
+ * building a document tree. The format is detected from the first character
+ * of the response. Unknown fields are skipped.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceTableParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Parses UTF-8 encoded price list.
+     *
+     * @param in price list response stream. The stream is not closed.
+     * @return parsed price list.
+     * @throws ResponseException if the response is an error response.
+     * @throws MessenteException if the response is malformed or can't be
+     * read.
+     */
+    public PriceTable parse(InputStream in) throws MessenteException {
+        return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses price list.
+     *
+     * @param reader price list response. The reader is not closed.
+     * @return parsed price list.
+     * @throws ResponseException if the response is an error response.
+     * @throws MessenteException if the response is malformed or can't be
+     * read.
+     */
+    public PriceTable parse(Reader reader) throws MessenteException {
+
+        Source source = new Source(reader);
+
+        try {
+            switch (source.skipWhitespace()) {
+                case '{':
+                    return new JsonParser(source).parse();
+                case '<':
+                    return new XmlParser(source).parse();
+                default:
+                    // Error responses like "ERROR 104" are plain text
+                    MessenteResponse response = new MessenteResponse(
+                            source.readRemaining().trim(), 200);
+                    throw new ResponseException(response.getResponseCode(),
+                            "Price list not available! " + response.getResponseMessage());
+            }
+        } catch (IOException ex) {
+            throw new MessenteException("Unable to read price list! " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Parses price in currency units to micro units.
+     *
+     * @param price decimal price, e.g. "0.05000".
+     * @return price in micro units, rounded half up.
+     * @throws MessenteException if the price is not a decimal number.
+     */
+    static long parseMicros(String price) throws MessenteException {
+
+        if (price == null || price.isEmpty()) {
+            throw new MessenteException("Price is missing!");
+        }
+
+        int i = 0;
+        boolean negative = price.charAt(0) == '-';
+        if (negative || price.charAt(0) == '+') {
+            i++;
+        }
+
+        long micros = 0;
+        int scale = -1;
+        boolean digits = false;
+
+        for (; i < price.length(); i++) {
+
+            char c = price.charAt(i);
+
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                if (scale < 6) {
+                    micros = micros * 10 + (c - '0');
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else if (scale == 6) {
+                    // Round half up on the first dropped digit
+                    micros += c >= '5' ? 1 : 0;
+                    scale++;
+                }
+            } else {
+                throw new MessenteException("Invalid price '" + price + "'!");
+            }
+        }
+
+        if (!digits) {
+            throw new MessenteException("Invalid price '" + price + "'!");
+        }
+
+        for (scale = Math.max(scale, 0); scale < 6; scale++) {
+            micros *= 10;
+        }
+        return negative ? -micros : micros;
+    }
+
+    /**
+     * Buffered char source with a single char lookahead.
+     */
+    private static final class Source {
+
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private Source(Reader reader) {
+            this.reader = reader;
+        }
+
+        private int peek() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            if (c >= 0) {
+                position++;
+            }
+            return c;
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = peek();
+            while (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\ufeff') {
+                position++;
+                c = peek();
+            }
+            return c;
+        }
+
+        private String readRemaining() throws IOException {
+            StringBuilder b = new StringBuilder();
+            int c;
+            while ((c = read()) >= 0) {
+                b.append((char) c);
+            }
+            return b.toString();
+        }
+    }
+
+    /**
+     * Collects networks into growing primitive arrays.
+     */
+    private static final class TableBuilder {
+
+        private String country;
+        private String name;
+        private String prefix;
+        private int count;
+        private int[] mccmnc = new int[16];
+        private byte[] mccmncDigits = new byte[16];
+        private String[] networkNames = new String[16];
+        private long[] prices = new long[16];
+
+        private void addNetwork(String code, String networkName, String price)
+                throws MessenteException {
+
+            if (code == null || code.isEmpty() || code.length() > 9) {
+                throw new MessenteException("Invalid network code '" + code + "'!");
+            }
+
+            int value = 0;
+            for (int i = 0; i < code.length(); i++) {
+                char c = code.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new MessenteException("Invalid network code '" + code + "'!");
+                }
+                value = value * 10 + (c - '0');
+            }
+
+            if (count == prices.length) {
+                int capacity = count * 2;
+                mccmnc = Arrays.copyOf(mccmnc, capacity);
+                mccmncDigits = Arrays.copyOf(mccmncDigits, capacity);
+                networkNames = Arrays.copyOf(networkNames, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+
+            mccmnc[count] = value;
+            mccmncDigits[count] = (byte) code.length();
+            networkNames[count] = networkName;
+            prices[count] = parseMicros(price);
+            count++;
+        }
+
+        private PriceTable build() {
+            return new PriceTable(country, name, prefix,
+                    Arrays.copyOf(mccmnc, count), Arrays.copyOf(mccmncDigits, count),
+                    Arrays.copyOf(networkNames, count), Arrays.copyOf(prices, count));
+        }
+    }
+
+    /**
+     * Parser of JSON price lists:
+     * {"country": "EE", "name": "Estonia", "prefix": "372", "networks":
+     * [{"mccmnc": "24801", "name": "Telia", "price": "0.05000"}, ...]}
+     */
+    private static final class JsonParser {
+
+        private final Source source;
+        private final StringBuilder text = new StringBuilder();
+
+        private JsonParser(Source source) {
+            this.source = source;
+        }
+
+        private PriceTable parse() throws IOException, MessenteException {
+
+            TableBuilder table = new TableBuilder();
+
+            expect('{');
+            if (source.skipWhitespace() == '}') {
+                source.read();
+                return table.build();
+            }
+
+            do {
+                String key = readKey();
+                switch (key) {
+                    case "country":
+                        table.country = readScalar();
+                        break;
+                    case "name":
+                        table.name = readScalar();
+                        break;
+                    case "prefix":
+                        table.prefix = readScalar();
+                        break;
+                    case "networks":
+                        readNetworks(table);
+                        break;
+                    default:
+                        skipValue();
+                }
+            } while (next('}'));
+
+            return table.build();
+        }
+
+        private void readNetworks(TableBuilder table) throws IOException, MessenteException {
+
+            if (source.skipWhitespace() != '[') {
+                skipValue();
+                return;
+            }
+            source.read();
+
+            if (source.skipWhitespace() == ']') {
+                source.read();
+                return;
+            }
+
+            do {
+                String code = null;
+                String networkName = null;
+                String price = null;
+
+                expect('{');
+                if (source.skipWhitespace() == '}') {
+                    source.read();
+                } else {
+                    do {
+                        String key = readKey();
+                        switch (key) {
+                            case "mccmnc":
+                                code = readScalar();
+                                break;
+                            case "name":
+                                networkName = readScalar();
+                                break;
+                            case "price":
+                                price = readScalar();
+                                break;
+                            default:
+                                skipValue();
+                        }
+                    } while (next('}'));
+                }
+
+                table.addNetwork(code, networkName, price);
+            } while (next(']'));
+        }
+
+        private String readKey() throws IOException, MessenteException {
+            if (source.skipWhitespace() != '"') {
+                throw error("object key");
+            }
+            String key = readString();
+            expect(':');
+            return key;
+        }
+
+        /**
+         * Reads string, number or literal value as string.
+         *
+         * @return value, null for JSON null.
+         */
+        private String readScalar() throws IOException, MessenteException {
+
+            int c = source.skipWhitespace();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("scalar value");
+            }
+
+            text.setLength(0);
+            while (c >= 0 && c != ',' && c != '}' && c != ']' && c > ' ') {
+                text.append((char) source.read());
+                c = source.peek();
+            }
+            if (text.length() == 0) {
+                throw error("value");
+            }
+
+            String value = text.toString();
+            return value.equals("null") ? null : value;
+        }
+
+        private String readString() throws IOException, MessenteException {
+
+            source.read();
+            text.setLength(0);
+
+            while (true) {
+                int c = source.read();
+                if (c < 0) {
+                    throw error("end of string");
+                }
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append((char) c);
+                    continue;
+                }
+
+                c = source.read();
+                switch (c) {
+                    case 'b':
+                        text.append('\b');
+                        break;
+                    case 'f':
+                        text.append('\f');
+                        break;
+                    case 'n':
+                        text.append('\n');
+                        break;
+                    case 'r':
+                        text.append('\r');
+                        break;
+                    case 't':
+                        text.append('\t');
+                        break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(source.read(), 16);
+                            if (digit < 0) {
+                                throw error("unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        text.append((char) code);
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        text.append((char) c);
+                        break;
+                    default:
+                        throw error("escape sequence");
+                }
+            }
+        }
+
+        private void skipValue() throws IOException, MessenteException {
+
+            int c = source.skipWhitespace();
+
+            if (c == '"') {
+                readString();
+            } else if (c == '{') {
+                source.read();
+                if (source.skipWhitespace() == '}') {
+                    source.read();
+                    return;
+                }
+                do {
+                    readKey();
+                    skipValue();
+                } while (next('}'));
+            } else if (c == '[') {
+                source.read();
+                if (source.skipWhitespace() == ']') {
+                    source.read();
+                    return;
+                }
+                do {
+                    skipValue();
+                } while (next(']'));
+            } else {
+                readScalar();
+            }
+        }
+
+        /**
+         * Reads the separator after a member or element.
+         *
+         * @param close closing char of the object or array.
+         * @return true if another member or element follows.
+         */
+        private boolean next(char close) throws IOException, MessenteException {
+            int c = source.skipWhitespace();
+            source.read();
+            if (c == ',') {
+                return true;
+            }
+            if (c == close) {
+                return false;
+            }
+            throw error("',' or '" + close + "'");
+        }
+
+        private void expect(char expected) throws IOException, MessenteException {
+            if (source.skipWhitespace() != expected) {
+                throw error("'" + expected + "'");
+            }
+            source.read();
+        }
+
+        private MessenteException error(String expected) {
+            return new MessenteException("Malformed JSON price list, expected "
+                    + expected + "!");
+        }
+    }
+
+    /**
+     * Parser of XML price lists:
+     * &lt;prices&gt;&lt;country&gt;EE&lt;/country&gt;...&lt;networks&gt;
+     * &lt;network&gt;&lt;mccmnc&gt;24801&lt;/mccmnc&gt;&lt;name&gt;Telia&lt;/name&gt;
+     * &lt;price&gt;0.05000&lt;/price&gt;&lt;/network&gt;...&lt;/networks&gt;&lt;/prices&gt;
+     */
+    private static final class XmlParser {
+
+        private final Source source;
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder tagName = new StringBuilder();
+        private final List<String> path = new ArrayList<>();
+
+        private String code;
+        private String networkName;
+        private String price;
+
+        private XmlParser(Source source) {
+            this.source = source;
+        }
+
+        private PriceTable parse() throws IOException, MessenteException {
+
+            TableBuilder table = new TableBuilder();
+            boolean started = false;
+
+            while (true) {
+
+                int c = source.read();
+
+                if (c < 0) {
+                    if (!path.isEmpty() || !started) {
+                        throw error("unexpected end of document");
+                    }
+                    return table.build();
+                }
+
+                if (c == '&') {
+                    readEntity();
+                } else if (c != '<') {
+                    text.append((char) c);
+                } else if (source.peek() == '?') {
+                    skipPast("?>");
+                } else if (source.peek() == '!') {
+                    readDeclaration();
+                } else if (source.peek() == '/') {
+                    source.read();
+                    endElement(readName(), table);
+                    skipPast(">");
+                } else {
+                    String name = readName();
+                    started = true;
+                    path.add(name);
+                    text.setLength(0);
+                    if (skipAttributes()) {
+                        endElement(name, table);
+                    }
+                }
+            }
+        }
+
+        private void endElement(String name, TableBuilder table) throws MessenteException {
+
+            if (path.isEmpty() || !path.get(path.size() - 1).equals(name)) {
+                throw error("closing tag of " + (path.isEmpty() ? "document"
+                        : path.get(path.size() - 1)));
+            }
+            path.remove(path.size() - 1);
+
+            String value = text.toString().trim();
+            text.setLength(0);
+            String parent = path.isEmpty() ? null : path.get(path.size() - 1);
+
+            if (path.size() == 1) {
+                switch (name) {
+                    case "country":
+                        table.country = value;
+                        break;
+                    case "name":
+                        table.name = value;
+                        break;
+                    case "prefix":
+                        table.prefix = value;
+                        break;
+                }
+            } else if ("network".equals(parent)) {
+                switch (name) {
+                    case "mccmnc":
+                        code = value;
+                        break;
+                    case "name":
+                        networkName = value;
+                        break;
+                    case "price":
+                        price = value;
+                        break;
+                }
+            } else if (name.equals("network")) {
+                table.addNetwork(code, networkName, price);
+                code = null;
+                networkName = null;
+                price = null;
+            }
+        }
+
+        private String readName() throws IOException {
+            tagName.setLength(0);
+            int c = source.peek();
+            while (c >= 0 && c != '>' && c != '/' && c > ' ') {
+                tagName.append((char) source.read());
+                c = source.peek();
+            }
+            return tagName.toString();
+        }
+
+        /**
+         * Skips attributes up to the end of the start tag.
+         *
+         * @return true if the element is empty (self-closing).
+         */
+        private boolean skipAttributes() throws IOException, MessenteException {
+
+            boolean empty = false;
+
+            while (true) {
+                int c = source.read();
+                if (c < 0) {
+                    throw error("end of tag");
+                }
+                if (c == '>') {
+                    return empty;
+                }
+                if (c == '"' || c == '\'') {
+                    int quote = c;
+                    while ((c = source.read()) != quote) {
+                        if (c < 0) {
+                            throw error("end of attribute");
+                        }
+                    }
+                }
+                empty = c == '/';
+            }
+        }
+
+        private void readDeclaration() throws IOException, MessenteException {
+
+            source.read();
+            if (source.peek() == '-') {
+                skipPast("-->");
+                return;
+            }
+            if (source.peek() == '[') {
+                // <![CDATA[...]]>
+                skipPast("[CDATA[");
+                int matched = 0;
+                while (true) {
+                    int c = source.read();
+                    if (c < 0) {
+                        throw error("end of CDATA section");
+                    }
+                    if (c == '>' && matched >= 2) {
+                        text.setLength(text.length() - 2);
+                        return;
+                    }
+                    matched = c == ']' ? matched + 1 : 0;
+                    text.append((char) c);
+                }
+            }
+            skipPast(">");
+        }
+
+        private void readEntity() throws IOException, MessenteException {
+
+            tagName.setLength(0);
+            int c;
+            while ((c = source.read()) != ';') {
+                if (c < 0 || tagName.length() > 10) {
+                    throw error("end of entity");
+                }
+                tagName.append((char) c);
+            }
+
+            String entity = tagName.toString();
+            switch (entity) {
+                case "amp":
+                    text.append('&');
+                    break;
+                case "lt":
+                    text.append('<');
+                    break;
+                case "gt":
+                    text.append('>');
+                    break;
+                case "quot":
+                    text.append('"');
+                    break;
+                case "apos":
+                    text.append('\'');
+                    break;
+                default:
+                    try {
+                        if (entity.startsWith("#x")) {
+                            text.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+                        } else if (entity.startsWith("#")) {
+                            text.appendCodePoint(Integer.parseInt(entity.substring(1)));
+                        } else {
+                            throw error("known entity instead of &" + entity + ";");
+                        }
+                    } catch (IllegalArgumentException ex) {
+                        throw error("character reference instead of &" + entity + ";");
+                    }
+            }
+        }
+
+        private void skipPast(String end) throws IOException, MessenteException {
+            int matched = 0;
+            while (matched < end.length()) {
+                int c = source.read();
+                if (c < 0) {
+                    throw error("'" + end + "'");
+                }
+                if (c == end.charAt(matched)) {
+                    matched++;
+                } else {
+                    matched = c == end.charAt(0) ? 1 : 0;
+                }
+            }
+        }
+
+        private MessenteException error(String expected) {
+            return new MessenteException("Malformed XML price list, expected "
+                    + expected + "!");
+        }
+    }
+}
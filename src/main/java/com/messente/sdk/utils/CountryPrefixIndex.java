@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.Country;
+
+import java.util.Arrays;
+
+/**
+ * Phone number prefix index.
+ *
+ * Resolves normalized phone numbers to {@link Country} by the longest matching
+ * dialling code. The dialling codes are kept in a digit trie that is stored in
+ * flat arrays and shared by all instances, so the lookup takes one array read
+ * per digit and doesn't allocate.
+ *
+ * @see Country#getDiallingCodes()
+ * @author Lennar Kallas
+ */
+public class CountryPrefixIndex {
+
+    /**
+     * Child node indexes. Children of node n are at n * 10 + digit, 0 means
+     * there's no child (root node can't be a child).
+     */
+    private static final int[] CHILDREN;
+
+    /**
+     * Country of each node, null if no dialling code ends at the node.
+     */
+    private static final Country[] COUNTRIES;
+
+    static {
+        int capacity = 1;
+        for (Country country : Country.values()) {
+            for (String code : country.getDiallingCodes()) {
+                capacity += code.length();
+            }
+        }
+
+        int[] children = new int[capacity * 10];
+        Country[] countries = new Country[capacity];
+        int nodes = 1;
+
+        for (Country country : Country.values()) {
+            for (String code : country.getDiallingCodes()) {
+                int node = 0;
+                for (int i = 0; i < code.length(); i++) {
+                    int slot = node * 10 + (code.charAt(i) - '0');
+                    if (children[slot] == 0) {
+                        children[slot] = nodes++;
+                    }
+                    node = children[slot];
+                }
+                countries[node] = country;
+            }
+        }
+
+        CHILDREN = Arrays.copyOf(children, nodes * 10);
+        COUNTRIES = Arrays.copyOf(countries, nodes);
+    }
+
+    /**
+     * Gets the country of the phone number.
+     *
+     * @param number normalized phone number, with or without '+' prefix.
+     * @return country with the longest dialling code matching the number,
+     * null if the number doesn't start with any known dialling code.
+     */
+    public Country resolve(CharSequence number) {
+
+        if (number == null) {
+            return null;
+        }
+
+        int length = number.length();
+        int i = length > 0 && number.charAt(0) == '+' ? 1 : 0;
+        int node = 0;
+        Country match = null;
+
+        for (; i < length; i++) {
+            int digit = number.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+
+            node = CHILDREN[node * 10 + digit];
+            if (node == 0) {
+                break;
+            }
+
+            if (COUNTRIES[node] != null) {
+                match = COUNTRIES[node];
+            }
+        }
+
+        return match;
+    }
+}
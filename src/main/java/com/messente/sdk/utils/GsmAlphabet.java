@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+/**
+ * GSM 03.38 default alphabet and extension table as lookup tables indexed by
+ * char. The tables are built once and shared by all users.
+ *
+ * @author Jaanus Rõõmus
+ */
+final class GsmAlphabet {
+
+    /**
+     * Escape character that precedes characters of the extension table.
+     */
+    static final char ESC = '\u001b';
+
+    /**
+     * Characters of the default alphabet in septet code order.
+     */
+    static final String BASIC = ""
+            + "@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞ\u001bÆæßÉ"
+            + " !\"#¤%&'()*+,-./0123456789:;<=>?"
+            + "¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§"
+            + "¿abcdefghijklmnopqrstuvwxyzäöñüà";
+
+    /**
+     * Characters of the extension table that must be escaped with
+     * {@link #ESC}.
+     */
+    static final String EXTENSION = "\f^{}\\[~]|€";
+
+    /**
+     * Septet codes of {@link #EXTENSION} characters.
+     */
+    private static final byte[] EXTENSION_CODES = {
+        0x0A, 0x14, 0x28, 0x29, 0x2F, 0x3C, 0x3D, 0x3E, 0x40, 0x65
+    };
+
+    /**
+     * Number of septets each char takes: 1 for the default alphabet, 2 for
+     * the extension table and 0 for chars that can't be sent in GSM charset.
+     */
+    private static final byte[] SEPTETS;
+
+    /**
+     * Septet code of each char in the default alphabet or extension table.
+     */
+    private static final byte[] CODES;
+
+    /**
+     * Characters of the extension table indexed by septet code, 0 for codes
+     * that are not used.
+     */
+    private static final char[] EXTENSION_CHARS = new char[128];
+
+    static {
+        char max = 0;
+        for (int i = 0; i < BASIC.length(); i++) {
+            max = (char) Math.max(max, BASIC.charAt(i));
+        }
+        for (int i = 0; i < EXTENSION.length(); i++) {
+            max = (char) Math.max(max, EXTENSION.charAt(i));
+        }
+
+        SEPTETS = new byte[max + 1];
+        CODES = new byte[max + 1];
+        for (int i = 0; i < EXTENSION.length(); i++) {
+            SEPTETS[EXTENSION.charAt(i)] = 2;
+            CODES[EXTENSION.charAt(i)] = EXTENSION_CODES[i];
+            EXTENSION_CHARS[EXTENSION_CODES[i]] = EXTENSION.charAt(i);
+        }
+        for (int i = 0; i < BASIC.length(); i++) {
+            SEPTETS[BASIC.charAt(i)] = 1;
+            CODES[BASIC.charAt(i)] = (byte) i;
+        }
+    }
+
+    private GsmAlphabet() {
+    }
+
+    /**
+     * Gets the number of septets the char takes in GSM charset.
+     *
+     * @param c character to look up.
+     * @return 1 or 2 septets, 0 if the char is not present in GSM charset.
+     */
+    static int septets(char c) {
+        return c < SEPTETS.length ? SEPTETS[c] : 0;
+    }
+
+    /**
+     * Gets the septet code of the char. Extended characters must be preceded
+     * by {@link #ESC} septet.
+     *
+     * @param c character present in GSM charset.
+     * @return septet code in the default alphabet or extension table.
+     */
+    static int code(char c) {
+        return CODES[c];
+    }
+
+    /**
+     * Gets the char of the default alphabet.
+     *
+     * @param code septet code.
+     * @return character with the given code.
+     */
+    static char basicChar(int code) {
+        return BASIC.charAt(code);
+    }
+
+    /**
+     * Gets the char of the extension table. Codes that are not used in the
+     * extension table fall back to the default alphabet as required by GSM
+     * 03.38.
+     *
+     * @param code septet code following escape septet.
+     * @return character with the given code.
+     */
+    static char extensionChar(int code) {
+        char c = EXTENSION_CHARS[code];
+        return c != 0 ? c : BASIC.charAt(code);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.exception.MessenteException;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * GSM 03.38 encoder and decoder.
+ *
+ * Packs SMS text into GSM 7-bit septets or UCS-2 octets as they are sent over
+ * the air. All methods write into buffers supplied by the caller, so buffers
+ * can be reused and no memory is allocated per message.
+ *
+ * Instances hold no state and are safe to share between threads.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/GSM_03.38">GSM 03.38</a>
+ * @author Jaanus Rõõmus
+ */
+public class GsmCodec {
+
+    /**
+     * Gets the number of octets the packed septets take.
+     *
+     * @param septets number of septets.
+     * @param paddingBits number of fill bits before the first septet.
+     * @return number of octets.
+     */
+    public int getPackedLength(int septets, int paddingBits) {
+        return (septets * 7 + paddingBits + 7) / 8;
+    }
+
+    /**
+     * Gets the number of fill bits needed to align the first septet after a
+     * User Data Header to septet boundary.
+     *
+     * @param udhLength length of UDH in octets (including UDHL octet), 0 if
+     * there's no UDH.
+     * @return number of fill bits (0 to 6).
+     */
+    public int getPaddingBits(int udhLength) {
+        return (7 - (udhLength * 8) % 7) % 7;
+    }
+
+    /**
+     * Encodes SMS text to packed GSM 7-bit septets.
+     *
+     * @param content SMS text.
+     * @param target buffer to write to, starting at its position.
+     * @return number of septets written.
+     * @throws MessenteException if the text contains a character not present
+     * in GSM charset.
+     * @throws BufferOverflowException if the target buffer is too small.
+     */
+    public int encodeGsm7bit(CharSequence content, ByteBuffer target) throws MessenteException {
+        return encodeGsm7bit(content, 0, content.length(), target, 0);
+    }
+
+    /**
+     * Encodes part of SMS text to packed GSM 7-bit septets.
+     *
+     * @param content SMS text.
+     * @param start start index of the text, inclusive.
+     * @param end end index of the text, exclusive.
+     * @param target buffer to write to, starting at its position.
+     * @param paddingBits number of fill bits before the first septet, see
+     * {@link #getPaddingBits(int)}.
+     * @return number of septets written.
+     * @throws MessenteException if the text contains a character not present
+     * in GSM charset.
+     * @throws BufferOverflowException if the target buffer is too small.
+     */
+    public int encodeGsm7bit(CharSequence content, int start, int end,
+            ByteBuffer target, int paddingBits) throws MessenteException {
+
+        int septets = 0;
+        int bits = paddingBits;
+        int buffer = 0;
+
+        for (int i = start; i < end; i++) {
+
+            char c = content.charAt(i);
+            int charSeptets = GsmAlphabet.septets(c);
+
+            if (charSeptets == 0) {
+                throw new MessenteException("Character '" + c
+                        + "' is not present in GSM charset!");
+            }
+
+            if (charSeptets == 2) {
+                buffer |= GsmAlphabet.ESC << bits;
+                bits += 7;
+                septets++;
+            }
+
+            buffer |= GsmAlphabet.code(c) << bits;
+            bits += 7;
+            septets++;
+
+            while (bits >= 8) {
+                target.put((byte) buffer);
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+
+        if (bits > 0 && septets > 0) {
+            target.put((byte) buffer);
+        }
+        return septets;
+    }
+
+    /**
+     * Decodes packed GSM 7-bit septets.
+     *
+     * @param source buffer to read from, starting at its position.
+     * @param septets number of septets to decode.
+     * @param paddingBits number of fill bits before the first septet.
+     * @param target builder to append decoded text to.
+     * @return number of characters appended.
+     * @throws BufferUnderflowException if the source buffer has less septets.
+     */
+    public int decodeGsm7bit(ByteBuffer source, int septets, int paddingBits,
+            StringBuilder target) {
+
+        int start = target.length();
+        int bits = 0;
+        int buffer = 0;
+        boolean escape = false;
+
+        if (paddingBits > 0 && septets > 0) {
+            buffer = (source.get() & 0xFF) >>> paddingBits;
+            bits = 8 - paddingBits;
+        }
+
+        for (int i = 0; i < septets; i++) {
+
+            if (bits < 7) {
+                buffer |= (source.get() & 0xFF) << bits;
+                bits += 8;
+            }
+
+            int code = buffer & 0x7F;
+            buffer >>>= 7;
+            bits -= 7;
+
+            if (escape) {
+                target.append(GsmAlphabet.extensionChar(code));
+                escape = false;
+            } else if (code == GsmAlphabet.ESC) {
+                escape = true;
+            } else {
+                target.append(GsmAlphabet.basicChar(code));
+            }
+        }
+
+        return target.length() - start;
+    }
+
+    /**
+     * Encodes SMS text to UCS-2 (UTF-16 big-endian) octets.
+     *
+     * @param content SMS text.
+     * @param target buffer to write to, starting at its position.
+     * @return number of octets written.
+     * @throws BufferOverflowException if the target buffer is too small.
+     */
+    public int encodeUcs2(CharSequence content, ByteBuffer target) {
+        return encodeUcs2(content, 0, content.length(), target);
+    }
+
+    /**
+     * Encodes part of SMS text to UCS-2 (UTF-16 big-endian) octets.
+     *
+     * @param content SMS text.
+     * @param start start index of the text, inclusive.
+     * @param end end index of the text, exclusive.
+     * @param target buffer to write to, starting at its position.
+     * @return number of octets written.
+     * @throws BufferOverflowException if the target buffer is too small.
+     */
+    public int encodeUcs2(CharSequence content, int start, int end, ByteBuffer target) {
+
+        if (target.remaining() < (end - start) * 2) {
+            throw new BufferOverflowException();
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = content.charAt(i);
+            target.put((byte) (c >>> 8));
+            target.put((byte) c);
+        }
+        return (end - start) * 2;
+    }
+
+    /**
+     * Decodes UCS-2 (UTF-16 big-endian) octets.
+     *
+     * @param source buffer to read from, starting at its position.
+     * @param length number of octets to decode.
+     * @param target builder to append decoded text to.
+     * @return number of characters appended.
+     * @throws BufferUnderflowException if the source buffer has less octets.
+     */
+    public int decodeUcs2(ByteBuffer source, int length, StringBuilder target) {
+
+        if (source.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+
+        for (int i = 0; i < length / 2; i++) {
+            target.append((char) (((source.get() & 0xFF) << 8) | (source.get() & 0xFF)));
+        }
+        return length / 2;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.NationalLanguage;
+import com.messente.sdk.enums.SmsEncoding;
+
+/**
+ * Immutable result of SMS length analysis with national language shift
+ * tables.
+ *
+ * @see SmsLengthCalculator#analyzeNationalLanguage(CharSequence,
+ * NationalLanguage...)
+ * @author Jaanus Rõõmus
+ */
+public final class NationalLanguageInfo {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Information element identifiers of national language shifts.
+     */
+    private static final int IEI_SINGLE_SHIFT = 0x24;
+    private static final int IEI_LOCKING_SHIFT = 0x25;
+
+    private final SmsEncoding encoding;
+    private final NationalLanguage lockingShift;
+    private final NationalLanguage singleShift;
+    private final int characterCount;
+    private final int partCount;
+
+    NationalLanguageInfo(SmsEncoding encoding, NationalLanguage lockingShift,
+            NationalLanguage singleShift, int characterCount, int partCount) {
+
+        this.encoding = encoding;
+        this.lockingShift = lockingShift;
+        this.singleShift = singleShift;
+        this.characterCount = characterCount;
+        this.partCount = partCount;
+    }
+
+    /**
+     * Gets the encoding the SMS text must be sent in.
+     *
+     * @return GSM 7-bit or UCS-2 encoding.
+     */
+    public SmsEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Gets the language of the locking shift table.
+     *
+     * @return national language, null if the default alphabet is used.
+     */
+    public NationalLanguage getLockingShift() {
+        return lockingShift;
+    }
+
+    /**
+     * Gets the language of the single shift table.
+     *
+     * @return national language, null if the default extension table is
+     * used.
+     */
+    public NationalLanguage getSingleShift() {
+        return singleShift;
+    }
+
+    /**
+     * Gets the length of the SMS text in the units of its encoding.
+     *
+     * @return number of septets for GSM 7-bit encoding, number of UTF-16 code
+     * units for UCS-2 encoding.
+     */
+    public int getCharacterCount() {
+        return characterCount;
+    }
+
+    /**
+     * Gets the number of parts the SMS text is split up to.
+     *
+     * @return SMS part count.
+     */
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * Gets the length of the national language shift User Data Header.
+     *
+     * @return UDH length in octets (including UDHL octet), 0 if no shift
+     * table is used.
+     */
+    public int getUdhLength() {
+        int elements = (lockingShift != null ? 1 : 0) + (singleShift != null ? 1 : 0);
+        return elements == 0 ? 0 : 1 + elements * 3;
+    }
+
+    /**
+     * Gets the User Data Header with national language shift information
+     * elements. Multipart messages must also carry the concatenation
+     * information element in the same header.
+     *
+     * @return UDH as upper case hex string, null if no shift table is used.
+     */
+    public String getUdh() {
+
+        int length = getUdhLength();
+        if (length == 0) {
+            return null;
+        }
+
+        StringBuilder udh = new StringBuilder(length * 2);
+        hex(udh, length - 1);
+        if (singleShift != null) {
+            hex(udh, IEI_SINGLE_SHIFT);
+            hex(udh, 1);
+            hex(udh, singleShift.getId());
+        }
+        if (lockingShift != null) {
+            hex(udh, IEI_LOCKING_SHIFT);
+            hex(udh, 1);
+            hex(udh, lockingShift.getId());
+        }
+        return udh.toString();
+    }
+
+    private static void hex(StringBuilder target, int octet) {
+        target.append(HEX[(octet >>> 4) & 0x0F]).append(HEX[octet & 0x0F]);
+    }
+
+    @Override
+    public String toString() {
+        return ""
+                + "Encoding: " + encoding + "\n"
+                + "Locking shift: " + lockingShift + "\n"
+                + "Single shift: " + singleShift + "\n"
+                + "Characters: " + characterCount + "\n"
+                + "Parts: " + partCount;
+    }
+}
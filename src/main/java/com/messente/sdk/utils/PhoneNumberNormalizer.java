@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.PhoneNumberError;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Phone number normalizer.
+ *
+ * Converts phone numbers to E.164 format ("+" followed by digits) in a single
+ * pass without regular expressions. Common separators (whitespace, dashes,
+ * dots, slashes and parentheses) are skipped and the "00" international call
+ * prefix is accepted in place of "+". Numbers that can't be normalized are
+ * reported with a {@link PhoneNumberError} instead of an exception.
+ *
+ * Instances hold no state and are safe to share between threads.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/E.164">E.164</a>
+ * @author Lennar Kallas
+ */
+public class PhoneNumberNormalizer {
+
+    /**
+     * Maximum number of digits in E.164 number (country code included).
+     */
+    public static final int MAX_DIGITS = 15;
+
+    /**
+     * Minimum number of digits in E.164 number (country code included).
+     */
+    public static final int MIN_DIGITS = 7;
+
+    /**
+     * Shared results for failed normalizations, indexed by error ordinal.
+     */
+    private static final Result[] ERRORS;
+
+    static {
+        PhoneNumberError[] errors = PhoneNumberError.values();
+        ERRORS = new Result[errors.length];
+        for (PhoneNumberError error : errors) {
+            ERRORS[error.ordinal()] = new Result(null, error);
+        }
+    }
+
+    /**
+     * Normalizes phone number to E.164 format.
+     *
+     * @param number phone number in any common notation.
+     * @return normalization result. Never null.
+     */
+    public Result normalize(CharSequence number) {
+
+        if (number == null) {
+            return ERRORS[PhoneNumberError.EMPTY.ordinal()];
+        }
+
+        // Room for '+', "00" prefix and maximum number of digits
+        char[] buffer = new char[MAX_DIGITS + 3];
+        int digits = 0;
+        boolean plus = false;
+        boolean canonical = true;
+
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                if (digits < MAX_DIGITS + 2) {
+                    buffer[digits + 1] = c;
+                }
+                digits++;
+            } else if (c == '+') {
+                if (plus || digits > 0) {
+                    return ERRORS[PhoneNumberError.INVALID_CHARACTER.ordinal()];
+                }
+                plus = true;
+                canonical = i == 0;
+            } else if (isSeparator(c)) {
+                canonical = false;
+            } else {
+                return ERRORS[PhoneNumberError.INVALID_CHARACTER.ordinal()];
+            }
+        }
+
+        // Strip "00" international call prefix
+        int offset = 0;
+        if (!plus && digits > 2 && buffer[1] == '0' && buffer[2] == '0') {
+            offset = 2;
+            digits -= 2;
+        }
+
+        if (digits == 0) {
+            return ERRORS[PhoneNumberError.EMPTY.ordinal()];
+        }
+
+        if (buffer[offset + 1] == '0') {
+            return ERRORS[PhoneNumberError.INVALID_COUNTRY_CODE.ordinal()];
+        }
+
+        if (digits > MAX_DIGITS) {
+            return ERRORS[PhoneNumberError.TOO_LONG.ordinal()];
+        }
+
+        if (digits < MIN_DIGITS) {
+            return ERRORS[PhoneNumberError.TOO_SHORT.ordinal()];
+        }
+
+        // Already in E.164 format, reuse the given string
+        if (canonical && plus && number instanceof String) {
+            return new Result((String) number, null);
+        }
+
+        buffer[offset] = '+';
+        return new Result(new String(buffer, offset, digits + 1), null);
+    }
+
+    /**
+     * Normalizes list of phone numbers in parallel.
+     *
+     * @param numbers phone numbers in any common notation.
+     * @return normalization results in the same order as given numbers.
+     */
+    public List<Result> normalizeAll(List<? extends CharSequence> numbers) {
+        return numbers.parallelStream()
+                .map(this::normalize)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether the character is allowed as digit group separator.
+     *
+     * @param c character to check.
+     * @return true if character can be skipped.
+     */
+    private boolean isSeparator(char c) {
+        switch (c) {
+            case ' ':
+            case '\t':
+            case '-':
+            case '.':
+            case '/':
+            case '(':
+            case ')':
+            case '\u00a0':
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Immutable result of phone number normalization.
+     */
+    public static final class Result {
+
+        private final String number;
+        private final PhoneNumberError error;
+
+        private Result(String number, PhoneNumberError error) {
+            this.number = number;
+            this.error = error;
+        }
+
+        /**
+         * Gets whether the phone number was normalized successfully.
+         *
+         * @return true if the number is a valid E.164 number.
+         */
+        public boolean isValid() {
+            return error == null;
+        }
+
+        /**
+         * Gets the normalized phone number.
+         *
+         * @return phone number in E.164 format (with '+' prefix), null if the
+         * normalization failed.
+         */
+        public String getNumber() {
+            return number;
+        }
+
+        /**
+         * Gets the reason of the failed normalization.
+         *
+         * @return error, null if the normalization succeeded.
+         */
+        public PhoneNumberError getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return isValid() ? number : error.getMessage();
+        }
+    }
+}
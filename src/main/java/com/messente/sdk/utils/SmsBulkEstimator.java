@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bulk SMS length estimator.
+ *
+ * Counts the parts of many personalized messages in parallel before a
+ * campaign is sent. Texts are split between the fork/join worker threads of
+ * a parallel stream, each thread collects its own {@link SmsPartHistogram}
+ * and the histograms are merged at the end. The GSM lookup tables are static
+ * and read-only, so no per-thread copies are made.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsBulkEstimator {
+
+    /**
+     * Estimates the parts of all texts in the collection.
+     *
+     * @param contents SMS texts.
+     * @return histogram of part counts and encodings.
+     */
+    public SmsPartHistogram estimate(Collection<? extends CharSequence> contents) {
+        return estimate(contents.stream());
+    }
+
+    /**
+     * Estimates the parts of all texts of the spliterator.
+     *
+     * @param contents spliterator of SMS texts, it's split for parallel
+     * processing as far as it allows.
+     * @return histogram of part counts and encodings.
+     */
+    public SmsPartHistogram estimate(Spliterator<? extends CharSequence> contents) {
+        return estimate(StreamSupport.stream(contents, true));
+    }
+
+    /**
+     * Estimates the parts of all texts of the stream. The stream is processed
+     * in parallel.
+     *
+     * @param contents stream of SMS texts.
+     * @return histogram of part counts and encodings.
+     */
+    public SmsPartHistogram estimate(Stream<? extends CharSequence> contents) {
+        return contents.parallel().collect(SmsPartHistogram::new,
+                SmsPartHistogram::add, SmsPartHistogram::merge);
+    }
+}
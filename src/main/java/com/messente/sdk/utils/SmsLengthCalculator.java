@@ -15,9 +15,15 @@
  */
 package com.messente.sdk.utils;
 
+import com.messente.sdk.enums.Autoconvert;
+import com.messente.sdk.enums.NationalLanguage;
+import com.messente.sdk.enums.SmsEncoding;
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.List;
 
 /**
  * SMS length calculator.
@@ -26,6 +32,9 @@ import java.util.Set;
  * charset or UCS-2 must be used. Also takes care of trailing escape character
  * if a message is split on extended character.
  *
+ * The character tables are static and read-only, so instances are
+ * thread-safe and can be shared.
+ *
  * @see
  * <a href="http://messente.com/documentation/sms-length-calculator">http://messente.com/documentation/sms-length-calculator</a>
  *
@@ -33,34 +42,21 @@ import java.util.Set;
  */
 public class SmsLengthCalculator {
 
-    private final int GSM_CHARSET_7BIT = 0;
-    private final int GSM_CHARSET_UNICODE = 2;
-    private final char GSM_7BIT_ESC = '\u001b';
+    private static final int GSM_CHARSET_7BIT = 0;
+    private static final int GSM_CHARSET_UNICODE = 2;
+    static final int GSM_7BIT_SINGLE_PART_LENGTH = 160;
+    static final int GSM_7BIT_MULTIPART_LENGTH = 153;
+    static final int UNICODE_SINGLE_PART_LENGTH = 70;
+    static final int UNICODE_MULTIPART_LENGTH = 67;
 
     /**
-     * List of all characters supported by GSM charset.
+     * 7-bit part lengths indexed by the number of national language shift
+     * information elements in UDH.
      */
-    private final Set<String> GSM7BIT = new HashSet<>(Arrays.asList(
-            new String[]{
-                "@", "£", "$", "¥", "è", "é", "ù", "ì", "ò", "Ç", "\n", "Ø", "ø", "\r", "Å", "å",
-                "Δ", "_", "Φ", "Γ", "Λ", "Ω", "Π", "Ψ", "Σ", "Θ", "Ξ", "\u001b", "Æ", "æ", "ß", "É",
-                " ", "!", "'", "#", "¤", "%", "&", "\"", "(", ")", "*", "+", ",", "-", ".", "/",
-                "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", ":", ";", "<", "=", ">", "?",
-                "¡", "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O",
-                "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z", "Ä", "Ö", "Ñ", "Ü", "§",
-                "¿", "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o",
-                "p", "q", "r", "s", "t", "u", "v", "w", "x", "y", "z", "ä", "ö", "ñ", "ü", "à"
-            }
-    ));
+    private static final int[] NATIONAL_SINGLE_PART_LENGTH = {160, 155, 152};
+    private static final int[] NATIONAL_MULTIPART_LENGTH = {153, 149, 146};
 
-    /**
-     * Set of extended characters that must be escaped with '\u001b'.
-     */
-    private final Set<String> GSM7BITEXT = new HashSet<>(Arrays.asList(
-            new String[]{
-                "\f", "^", "{", "}", "\\", "[", "~", "]", "|", "€"
-            }
-    ));
+    private final SmsTransliterator transliterator = new SmsTransliterator();
 
     /**
      * Gets the charset that is used in SMS text.
@@ -72,10 +68,8 @@ public class SmsLengthCalculator {
     public int getCharset(String content) {
 
         for (int i = 0; i < content.length(); i++) {
-            if (!GSM7BIT.contains(Character.toString(content.charAt(i)))) {
-                if (!GSM7BITEXT.contains(Character.toString(content.charAt(i)))) {
-                    return GSM_CHARSET_UNICODE;
-                }
+            if (GsmAlphabet.septets(content.charAt(i)) == 0) {
+                return GSM_CHARSET_UNICODE;
             }
         }
 
@@ -86,57 +80,181 @@ public class SmsLengthCalculator {
     /**
      * Gets SMS message parts count for SMS text that contains 7-bit characters.
      *
+     * Counts the parts in a single forward scan. Extended characters take two
+     * septets (escape character and the character itself) that can't be
+     * split between message parts, so a part that has only one septet left
+     * is closed and the extended character starts the next part.
+     *
      * @param content SMS text.
-     * @return SMS message part count.
+     * @return SMS message part count, 0 if the text contains a character that
+     * is not present in GSM charset.
+     */
+    static int getPartCount7bit(CharSequence content) {
+        return getPartCount7bit(content, 0);
+    }
+
+    /**
+     * Gets SMS message parts count for the end of the text that is sent in
+     * GSM 7-bit encoding.
+     *
+     * @param content text that ends with the SMS text.
+     * @param start index where the SMS text starts.
+     * @return SMS message part count, 0 if the text contains a character that
+     * is not present in GSM charset.
+     * @see #getPartCount7bit(CharSequence)
      */
-    private int getPartCount7bit(String content) {
+    static int getPartCount7bit(CharSequence content, int start) {
 
-        StringBuilder content7bit = new StringBuilder();
+        int septets = 0;
+        int parts = 1;
+        int partSeptets = 0;
 
-        // Add escape characters for extended charset
-        for (int i = 0; i < content.length(); i++) {
-            if (!GSM7BITEXT.contains(content.charAt(i) + "")) {
-                content7bit.append(content.charAt(i));
-            } else {
-                content7bit.append('\u001b');
-                content7bit.append(content.charAt(i));
+        for (int i = start; i < content.length(); i++) {
+
+            int charSeptets = GsmAlphabet.septets(content.charAt(i));
+            if (charSeptets == 0) {
+                return 0;
             }
+            septets += charSeptets;
+
+            // Start new part, don't split escape character from extended one
+            if (partSeptets + charSeptets > GSM_7BIT_MULTIPART_LENGTH) {
+                parts++;
+                partSeptets = 0;
+            }
+            partSeptets += charSeptets;
         }
 
-        if (content7bit.length() <= 160) {
+        return septets <= GSM_7BIT_SINGLE_PART_LENGTH ? 1 : parts;
+    }
+
+    /**
+     * Gets SMS message parts count for the end of the text that is sent in
+     * GSM 7-bit encoding when its septet count is already known.
+     *
+     * Each part boundary wastes at most one septet on escape characters, so
+     * the text is scanned only if the wasted septets could add a part.
+     *
+     * @param content text that ends with the SMS text.
+     * @param start index where the SMS text starts.
+     * @param septets number of septets in the SMS text.
+     * @param extended whether the SMS text has extended characters.
+     * @return SMS message part count.
+     */
+    static int getPartCount7bit(CharSequence content, int start, int septets,
+            boolean extended) {
 
+        if (septets <= GSM_7BIT_SINGLE_PART_LENGTH) {
             return 1;
+        }
 
-        } else {
+        int parts = (septets + GSM_7BIT_MULTIPART_LENGTH - 1) / GSM_7BIT_MULTIPART_LENGTH;
 
-            // Start counting the number of messages
-            int parts = (int) Math.ceil(content7bit.length() / 153.0);
-            int free_chars = content7bit.length() - (int) Math.floor(content7bit.length() / 153.0) * 153;
+        if (!extended || septets + parts - 1 <= parts * GSM_7BIT_MULTIPART_LENGTH) {
+            return parts;
+        }
+        return getPartCount7bit(content, start);
+    }
 
-            // We have enough free characters left, don't care about escape character at the end of sms part
-            if (free_chars >= parts - 1) {
-                return parts;
-            }
+    /**
+     * Gets SMS message parts count for SMS text without surrogate pairs that
+     * is sent in Unicode.
+     *
+     * @param length length of SMS text in UCS-2 units.
+     * @return SMS message part count.
+     */
+    static int getPartCountUnicode(int length) {
 
-            // Reset counter
-            parts = 0;
-            while (content7bit.length() > 0) {
+        if (length <= UNICODE_SINGLE_PART_LENGTH) {
+            return 1;
+        }
+        return (length + UNICODE_MULTIPART_LENGTH - 1) / UNICODE_MULTIPART_LENGTH;
+    }
 
-                // Advance sms counter
-                parts++;
+    /**
+     * Gets SMS message parts count for SMS text that is sent in Unicode.
+     *
+     * Counts the parts in a single forward scan. Characters outside the Basic
+     * Multilingual Plane (e.g. emoji) take two UCS-2 units (surrogate pair)
+     * that can't be split between message parts, so a part that has only one
+     * unit left is closed and the pair starts the next part.
+     *
+     * @param content SMS text.
+     * @return SMS message part count.
+     */
+    static int getPartCountUnicode(CharSequence content) {
+        return getPartCountUnicode(content, 0);
+    }
 
-                // Check for trailing escape character
-                if (content7bit.length() >= 152 && content7bit.charAt(152) == GSM_7BIT_ESC) {
-                    content7bit.delete(0, 152);
-                } else {
-                    content7bit.delete(0, 153);
-                }
+    /**
+     * Gets SMS message parts count for the end of the text that is sent in
+     * Unicode.
+     *
+     * @param content text that ends with the SMS text.
+     * @param start index where the SMS text starts.
+     * @return SMS message part count.
+     * @see #getPartCountUnicode(CharSequence)
+     */
+    static int getPartCountUnicode(CharSequence content, int start) {
+
+        int length = content.length() - start;
+        if (length <= UNICODE_SINGLE_PART_LENGTH) {
+            return 1;
+        }
+
+        int parts = 1;
+        int partUnits = 0;
+
+        for (int i = start; i < content.length(); i++) {
 
+            int units = isSurrogatePair(content, i) ? 2 : 1;
+
+            // Start new part, don't split surrogate pair
+            if (partUnits + units > UNICODE_MULTIPART_LENGTH) {
+                parts++;
+                partUnits = 0;
             }
+            partUnits += units;
+            i += units - 1;
+        }
+
+        return parts;
+    }
+
+    /**
+     * Gets SMS message parts count for the end of the text that is sent in
+     * Unicode when its length is already known.
+     *
+     * Each part boundary wastes at most one unit on surrogate pairs, so the
+     * text is scanned only if the wasted units could add a part.
+     *
+     * @param content text that ends with the SMS text.
+     * @param start index where the SMS text starts.
+     * @param surrogates whether the SMS text has surrogate pairs.
+     * @return SMS message part count.
+     */
+    static int getPartCountUnicode(CharSequence content, int start, boolean surrogates) {
 
+        int length = content.length() - start;
+        int parts = getPartCountUnicode(length);
+
+        if (parts == 1 || !surrogates || length + parts - 1 <= parts * UNICODE_MULTIPART_LENGTH) {
             return parts;
         }
+        return getPartCountUnicode(content, start);
+    }
 
+    /**
+     * Checks whether a surrogate pair starts at the index.
+     *
+     * @param content SMS text.
+     * @param index index of the char.
+     * @return true if the char is high surrogate followed by low surrogate.
+     */
+    static boolean isSurrogatePair(CharSequence content, int index) {
+        return Character.isHighSurrogate(content.charAt(index))
+                && index + 1 < content.length()
+                && Character.isLowSurrogate(content.charAt(index + 1));
     }
 
     /**
@@ -144,52 +262,419 @@ public class SmsLengthCalculator {
      *
      * @param content SMS text.
      *
-     * @return -1 If charset cannot be defined. Otherwise the number of SMS
-     * parts.
+     * @return the number of SMS parts.
      */
     public int getPartCount(String content) {
 
-        int charset = getCharset(content);
+        int parts = getPartCount7bit(content);
+
+        return parts != 0 ? parts : getPartCountUnicode(content);
+    }
 
-        if (charset == GSM_CHARSET_7BIT) {
+    /**
+     * Number of parts this message is split up to when sent via SMS with the
+     * given character replacement setting.
+     *
+     * @param content SMS text.
+     * @param autoconvert character replacement setting, null is treated as
+     * {@link Autoconvert#ON}.
+     * @return the number of SMS parts after the characters are replaced.
+     */
+    public int getPartCount(String content, Autoconvert autoconvert) {
+        return getPartCount(transliterator.transliterate(content, autoconvert));
+    }
 
-            return this.getPartCount7bit(content);
+    /**
+     * Gets the SMS text character count.
+     *
+     * @param content SMS text.
+     * @return The character count this SMS text consists of.
+     */
+    public int getCharacterCount(String content) {
 
-        } else if (charset == GSM_CHARSET_UNICODE) {
+        int chars = 0;
 
-            if (content.length() <= 70) {
-                return 1;
-            } else {
-                return (int) Math.ceil(content.length() / 67.0);
+        for (int i = 0; i < content.length(); i++) {
+            int septets = GsmAlphabet.septets(content.charAt(i));
+            if (septets == 0) {
+                return content.length();
             }
+            chars += septets;
+        }
 
+        return chars;
+    }
+
+    /**
+     * Analyzes the SMS text in a single scan. Gives the same results as
+     * {@link #getCharset(String)}, {@link #getCharacterCount(String)} and
+     * {@link #getPartCount(String)} together.
+     *
+     * @param content SMS text.
+     * @return encoding, length, part count, remaining characters and
+     * characters not present in GSM charset.
+     */
+    public SmsLengthInfo analyze(CharSequence content) {
+
+        int septets = 0;
+        int parts = 1;
+        int partSeptets = 0;
+        int unicodeParts = 1;
+        int unicodePartUnits = 0;
+        int pairEnd = -1;
+        StringBuilder nonGsm = null;
+        BitSet seen = null;
+
+        for (int i = 0; i < content.length(); i++) {
+
+            char c = content.charAt(i);
+            int charSeptets = GsmAlphabet.septets(c);
+
+            // Low surrogate was counted with the high one
+            if (i != pairEnd) {
+                int units = isSurrogatePair(content, i) ? 2 : 1;
+                if (units == 2) {
+                    pairEnd = i + 1;
+                }
+
+                // Start new part, don't split surrogate pair
+                if (unicodePartUnits + units > UNICODE_MULTIPART_LENGTH) {
+                    unicodeParts++;
+                    unicodePartUnits = 0;
+                }
+                unicodePartUnits += units;
+            }
+
+            if (charSeptets == 0) {
+                if (nonGsm == null) {
+                    nonGsm = new StringBuilder();
+                    seen = new BitSet();
+                }
+                if (!seen.get(c)) {
+                    seen.set(c);
+                    nonGsm.append(c);
+                }
+            } else if (nonGsm == null) {
+                septets += charSeptets;
+
+                // Start new part, don't split escape character from extended one
+                if (partSeptets + charSeptets > GSM_7BIT_MULTIPART_LENGTH) {
+                    parts++;
+                    partSeptets = 0;
+                }
+                partSeptets += charSeptets;
+            }
+        }
+
+        if (nonGsm == null) {
+
+            if (septets <= GSM_7BIT_SINGLE_PART_LENGTH) {
+                return new SmsLengthInfo(SmsEncoding.GSM_7BIT, septets, 1,
+                        GSM_7BIT_SINGLE_PART_LENGTH - septets, "");
+            }
+            return new SmsLengthInfo(SmsEncoding.GSM_7BIT, septets, parts,
+                    GSM_7BIT_MULTIPART_LENGTH - partSeptets, "");
         }
 
-        return -1;
+        int length = content.length();
+        if (length <= UNICODE_SINGLE_PART_LENGTH) {
+            return new SmsLengthInfo(SmsEncoding.UCS2, length, 1,
+                    UNICODE_SINGLE_PART_LENGTH - length, nonGsm.toString());
+        }
+        return new SmsLengthInfo(SmsEncoding.UCS2, length, unicodeParts,
+                UNICODE_MULTIPART_LENGTH - unicodePartUnits, nonGsm.toString());
+    }
 
+    /**
+     * Analyzes the SMS text as it is sent with the given character
+     * replacement setting.
+     *
+     * @param content SMS text.
+     * @param autoconvert character replacement setting, null is treated as
+     * {@link Autoconvert#ON}.
+     * @return encoding, length, part count, remaining characters and
+     * characters not present in GSM charset after the characters are
+     * replaced.
+     * @see SmsTransliterator
+     */
+    public SmsLengthInfo analyze(CharSequence content, Autoconvert autoconvert) {
+        return analyze(transliterator.transliterate(content, autoconvert));
     }
 
     /**
-     * Gets the SMS text character count.
+     * Analyzes the SMS text with GSM national language shift tables and picks
+     * the combination of locking shift and single shift tables that gives
+     * the fewest parts. Among combinations with as few parts the one with
+     * fewer shift tables and then fewer septets is preferred. All
+     * combinations are evaluated in a single scan of the text.
      *
      * @param content SMS text.
-     * @return The character count this SMS text consists of.
+     * @param languages national languages that may be used, all languages if
+     * none are given.
+     * @return encoding, shift tables, length and part count of the best
+     * combination. Shift tables are null if the default tables are used.
+     * @see NationalLanguageInfo#getUdh()
      */
-    public int getCharacterCount(String content) {
+    public NationalLanguageInfo analyzeNationalLanguage(CharSequence content,
+            NationalLanguage... languages) {
 
-        int chars = 0;
+        if (languages.length == 0) {
+            languages = NationalLanguage.values();
+        }
 
-        for (int i = 0; i < content.length(); i++) {
-            if (GSM7BIT.contains(content.charAt(i) + "")) {
-                chars++;
-            } else if (GSM7BITEXT.contains(content.charAt(i) + "")) {
-                chars += 2;
-            } else {
-                chars = content.length();
+        List<NationalLanguage> lockingShifts = new ArrayList<>();
+        List<NationalLanguage> singleShifts = new ArrayList<>();
+        lockingShifts.add(null);
+        singleShifts.add(null);
+        for (NationalLanguage language : languages) {
+            if (GsmNationalAlphabet.hasLockingShift(language)
+                    && !lockingShifts.contains(language)) {
+                lockingShifts.add(language);
+            }
+            if (GsmNationalAlphabet.hasSingleShift(language)
+                    && !singleShifts.contains(language)) {
+                singleShifts.add(language);
+            }
+        }
+
+        int count = lockingShifts.size() * singleShifts.size();
+        NationalLanguage[] locking = new NationalLanguage[count];
+        NationalLanguage[] single = new NationalLanguage[count];
+        int[] shifts = new int[count];
+        int[] septets = new int[count];
+        int[] parts = new int[count];
+        int[] partSeptets = new int[count];
+        boolean[] excluded = new boolean[count];
+
+        int k = 0;
+        for (NationalLanguage lockingShift : lockingShifts) {
+            for (NationalLanguage singleShift : singleShifts) {
+                locking[k] = lockingShift;
+                single[k] = singleShift;
+                shifts[k] = (lockingShift != null ? 1 : 0) + (singleShift != null ? 1 : 0);
+                parts[k] = 1;
+                k++;
+            }
+        }
+
+        int remaining = count;
+        for (int i = 0; i < content.length() && remaining > 0; i++) {
+
+            char c = content.charAt(i);
+
+            for (k = 0; k < count; k++) {
+
+                if (excluded[k]) {
+                    continue;
+                }
+
+                int charSeptets = GsmNationalAlphabet.septets(c, locking[k], single[k]);
+                if (charSeptets == 0) {
+                    excluded[k] = true;
+                    remaining--;
+                    continue;
+                }
+                septets[k] += charSeptets;
+
+                // Start new part, don't split escape character from extended one
+                if (partSeptets[k] + charSeptets > NATIONAL_MULTIPART_LENGTH[shifts[k]]) {
+                    parts[k]++;
+                    partSeptets[k] = 0;
+                }
+                partSeptets[k] += charSeptets;
+            }
+        }
+
+        int best = -1;
+        int bestParts = 0;
+        for (k = 0; k < count; k++) {
+
+            if (excluded[k]) {
+                continue;
+            }
+
+            int partCount = septets[k] <= NATIONAL_SINGLE_PART_LENGTH[shifts[k]] ? 1 : parts[k];
+            if (best < 0 || partCount < bestParts
+                    || (partCount == bestParts && shifts[k] < shifts[best])
+                    || (partCount == bestParts && shifts[k] == shifts[best]
+                    && septets[k] < septets[best])) {
+                best = k;
+                bestParts = partCount;
+            }
+        }
+
+        if (best < 0) {
+            return new NationalLanguageInfo(SmsEncoding.UCS2, null, null,
+                    content.length(), getPartCountUnicode(content));
+        }
+        return new NationalLanguageInfo(SmsEncoding.GSM_7BIT, locking[best],
+                single[best], septets[best], bestParts);
+    }
+
+    /**
+     * Gets the longest prefix of SMS text that fits into the given number of
+     * parts.
+     *
+     * @param content SMS text.
+     * @param maxParts maximum number of parts.
+     * @return the text itself if it fits, the longest prefix that fits
+     * otherwise.
+     * @throws MessenteException if the part count is less than 1.
+     */
+    public String fitToParts(CharSequence content, int maxParts) throws MessenteException {
+        return fitToParts(content, maxParts, "");
+    }
+
+    /**
+     * Gets the longest prefix of SMS text that fits into the given number of
+     * parts together with the ellipsis appended to it.
+     *
+     * The text is scanned up to its first character that is not present in
+     * GSM charset and once to count its parts. If it doesn't fit, the cut
+     * point is found by scanning only the prefix that fits, once per
+     * encoding, and the cost of the ellipsis is computed once per encoding.
+     * Escape characters are never cut from extended characters and surrogate
+     * pairs are never split. If the text is cut before its first character
+     * that is not present in GSM charset, the rest is measured in GSM 7-bit
+     * encoding, so the prefix may be longer than the one that fits in UCS-2.
+     *
+     * @param content SMS text.
+     * @param maxParts maximum number of parts.
+     * @param ellipsis text appended to the prefix if the text is cut, e.g.
+     * "...".
+     * @return the text itself if it fits, the longest prefix that fits
+     * followed by the ellipsis otherwise.
+     * @throws MessenteException if the part count is less than 1 or the
+     * ellipsis alone doesn't fit.
+     */
+    public String fitToParts(CharSequence content, int maxParts, String ellipsis)
+            throws MessenteException {
+
+        if (maxParts < 1) {
+            throw new MessenteException("Part count must be at least 1!");
+        }
+
+        int firstNonGsm = 0;
+        while (firstNonGsm < content.length()
+                && GsmAlphabet.septets(content.charAt(firstNonGsm)) != 0) {
+            firstNonGsm++;
+        }
+
+        int parts = firstNonGsm == content.length()
+                ? getPartCount7bit(content)
+                : getPartCountUnicode(content);
+        if (parts <= maxParts) {
+            return content.toString();
+        }
+        boolean gsmEllipsis = getPartCount7bit(ellipsis) != 0;
+
+        int cut = gsmEllipsis
+                ? getFittingLength(content, firstNonGsm, maxParts, ellipsis, false)
+                : -1;
+
+        // Prefixes before the first non-GSM character are sent in UCS-2 only
+        // if the ellipsis isn't in GSM charset
+        if (firstNonGsm < content.length() || !gsmEllipsis) {
+            int unicodeCut = getFittingLength(content, content.length(), maxParts,
+                    ellipsis, true);
+            if (unicodeCut > firstNonGsm || !gsmEllipsis) {
+                cut = Math.max(cut, unicodeCut);
+            }
+        }
+
+        if (cut < 0) {
+            throw new MessenteException("Ellipsis doesn't fit into " + maxParts
+                    + " parts!");
+        }
+        return new StringBuilder(cut + ellipsis.length())
+                .append(content, 0, cut).append(ellipsis).toString();
+    }
+
+    /**
+     * Finds the longest prefix that fits into the given number of parts
+     * together with the ellipsis.
+     *
+     * @param content SMS text.
+     * @param limit maximum length of the prefix.
+     * @param maxParts maximum number of parts.
+     * @param ellipsis text appended to the prefix.
+     * @param unicode true to measure in UCS-2 units, false in septets.
+     * @return length of the prefix, -1 if the ellipsis alone doesn't fit.
+     */
+    private static int getFittingLength(CharSequence content, int limit,
+            int maxParts, CharSequence ellipsis, boolean unicode) {
+
+        int singlePartLength = unicode ? UNICODE_SINGLE_PART_LENGTH : GSM_7BIT_SINGLE_PART_LENGTH;
+        int partLength = unicode ? UNICODE_MULTIPART_LENGTH : GSM_7BIT_MULTIPART_LENGTH;
+
+        // Parts added by the ellipsis for every fill level of the last part
+        int[] ellipsisUnits = getUnits(ellipsis, unicode);
+        int ellipsisTotal = 0;
+        for (int units : ellipsisUnits) {
+            ellipsisTotal += units;
+        }
+        int[] addedParts = new int[partLength + 1];
+        for (int fill = 0; fill <= partLength; fill++) {
+            int partUnits = fill;
+            for (int units : ellipsisUnits) {
+                if (partUnits + units > partLength) {
+                    addedParts[fill]++;
+                    partUnits = 0;
+                }
+                partUnits += units;
+            }
+        }
+
+        int total = 0;
+        int parts = 1;
+        int partUnits = 0;
+        int fitting = ellipsisTotal <= singlePartLength
+                || (maxParts > 1 && 1 + addedParts[0] <= maxParts) ? 0 : -1;
+
+        for (int i = 0; i < limit;) {
+
+            int chars = unicode && isSurrogatePair(content, i) ? 2 : 1;
+            int units = unicode ? chars : GsmAlphabet.septets(content.charAt(i));
+
+            // Start new part, don't split escape character or surrogate pair
+            if (partUnits + units > partLength) {
+                parts++;
+                partUnits = 0;
+            }
+            partUnits += units;
+            total += units;
+            i += chars;
+
+            // Longer prefixes don't fit either
+            if (total > singlePartLength && (maxParts == 1 || parts > maxParts)) {
                 break;
             }
+            if (total + ellipsisTotal <= singlePartLength
+                    || (maxParts > 1 && parts + addedParts[partUnits] <= maxParts)) {
+                fitting = i;
+            }
         }
 
-        return chars;
+        return fitting;
+    }
+
+    /**
+     * Gets the units each character or surrogate pair of the text takes.
+     *
+     * @param content text to measure.
+     * @param unicode true to measure in UCS-2 units, false in septets.
+     * @return units of the characters in order.
+     */
+    private static int[] getUnits(CharSequence content, boolean unicode) {
+
+        int[] units = new int[content.length()];
+        int count = 0;
+
+        for (int i = 0; i < content.length();) {
+            int chars = unicode && isSurrogatePair(content, i) ? 2 : 1;
+            units[count++] = unicode ? chars : GsmAlphabet.septets(content.charAt(i));
+            i += chars;
+        }
+        return count == units.length ? units : Arrays.copyOf(units, count);
     }
 }
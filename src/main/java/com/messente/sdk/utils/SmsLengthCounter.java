@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+/**
+ * Incremental SMS length counter.
+ *
+ * Keeps SMS text together with its septet count, the number of extended
+ * characters and the number of characters not present in GSM charset. Edits
+ * only classify the inserted and removed characters, so the encoding and the
+ * length are updated in time proportional to the edit and not to the whole
+ * text. The encoding switches back to GSM 7-bit as soon as the last non-GSM
+ * character is removed.
+ *
+ * The part count is derived from the counters. The text is rescanned only
+ * when it contains extended characters or surrogate pairs and is so close to
+ * a part limit that escape characters or surrogate pairs on part boundaries
+ * may add a part.
+ *
+ * Instances are not thread-safe, use one counter per edited text.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsLengthCounter {
+
+    private final StringBuilder text = new StringBuilder();
+
+    private int septets;
+    private int extendedCount;
+    private int nonGsmCount;
+    private int highSurrogateCount;
+
+    /**
+     * Creates counter for empty SMS text.
+     */
+    public SmsLengthCounter() {
+    }
+
+    /**
+     * Creates counter for the given SMS text.
+     *
+     * @param content initial SMS text.
+     */
+    public SmsLengthCounter(CharSequence content) {
+        append(content);
+    }
+
+    /**
+     * Appends text to the end of SMS text.
+     *
+     * @param s text to append.
+     */
+    public void append(CharSequence s) {
+        insert(text.length(), s);
+    }
+
+    /**
+     * Inserts text to SMS text.
+     *
+     * @param index position to insert at.
+     * @param s text to insert.
+     * @throws IndexOutOfBoundsException if the index is invalid.
+     */
+    public void insert(int index, CharSequence s) {
+
+        text.insert(index, s);
+
+        for (int i = 0; i < s.length(); i++) {
+            add(s.charAt(i), 1);
+        }
+    }
+
+    /**
+     * Deletes range of characters from SMS text.
+     *
+     * @param start start index, inclusive.
+     * @param end end index, exclusive.
+     * @throws IndexOutOfBoundsException if the range is invalid.
+     */
+    public void delete(int start, int end) {
+
+        checkRange(start, end);
+
+        for (int i = start; i < end; i++) {
+            add(text.charAt(i), -1);
+        }
+        text.delete(start, end);
+    }
+
+    /**
+     * Replaces range of characters in SMS text.
+     *
+     * @param start start index, inclusive.
+     * @param end end index, exclusive.
+     * @param s replacement text.
+     * @throws IndexOutOfBoundsException if the range is invalid.
+     */
+    public void replace(int start, int end, CharSequence s) {
+        delete(start, end);
+        insert(start, s);
+    }
+
+    /**
+     * Gets the encoding SMS text must be sent in.
+     *
+     * @return UCS-2 if the text contains any character not present in GSM
+     * charset, GSM 7-bit otherwise.
+     */
+    public SmsEncoding getEncoding() {
+        return nonGsmCount > 0 ? SmsEncoding.UCS2 : SmsEncoding.GSM_7BIT;
+    }
+
+    /**
+     * Gets the SMS text character count.
+     *
+     * @return number of septets for GSM 7-bit text, number of UCS-2 units
+     * otherwise.
+     */
+    public int getCharacterCount() {
+        return nonGsmCount > 0 ? text.length() : septets;
+    }
+
+    /**
+     * Number of parts this message is split up to when sent via SMS.
+     *
+     * @return the number of SMS parts.
+     */
+    public int getPartCount() {
+
+        if (nonGsmCount > 0) {
+            return SmsLengthCalculator.getPartCountUnicode(text, 0, highSurrogateCount > 0);
+        }
+        return SmsLengthCalculator.getPartCount7bit(text, 0, septets, extendedCount > 0);
+    }
+
+    /**
+     * Gets the length of SMS text.
+     *
+     * @return number of chars in SMS text.
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Counts character in or out of the counters.
+     *
+     * @param c character that is added or removed.
+     * @param sign 1 for added character, -1 for removed one.
+     */
+    private void add(char c, int sign) {
+
+        int charSeptets = GsmAlphabet.septets(c);
+
+        if (charSeptets == 0) {
+            nonGsmCount += sign;
+            if (Character.isHighSurrogate(c)) {
+                highSurrogateCount += sign;
+            }
+        } else {
+            septets += sign * charSeptets;
+            if (charSeptets == 2) {
+                extendedCount += sign;
+            }
+        }
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 0 || end > text.length() || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end "
+                    + end + ", length " + text.length());
+        }
+    }
+
+    /**
+     * Gets the SMS text.
+     *
+     * @return current SMS text.
+     */
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
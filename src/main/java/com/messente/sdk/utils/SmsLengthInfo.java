@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+/**
+ * Immutable result of SMS length analysis.
+ *
+ * @see SmsLengthCalculator#analyze(CharSequence)
+ * @author Jaanus Rõõmus
+ */
+public final class SmsLengthInfo {
+
+    private final SmsEncoding encoding;
+    private final int characterCount;
+    private final int partCount;
+    private final int remainingCharacters;
+    private final String nonGsmCharacters;
+
+    SmsLengthInfo(SmsEncoding encoding, int characterCount, int partCount,
+            int remainingCharacters, String nonGsmCharacters) {
+
+        this.encoding = encoding;
+        this.characterCount = characterCount;
+        this.partCount = partCount;
+        this.remainingCharacters = remainingCharacters;
+        this.nonGsmCharacters = nonGsmCharacters;
+    }
+
+    /**
+     * Gets the encoding the SMS text must be sent in.
+     *
+     * @return GSM 7-bit or UCS-2 encoding.
+     */
+    public SmsEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Gets the length of the SMS text in the units of its encoding.
+     *
+     * @return number of septets for GSM 7-bit encoding (extended characters
+     * take two), number of UTF-16 code units for UCS-2 encoding.
+     */
+    public int getCharacterCount() {
+        return characterCount;
+    }
+
+    /**
+     * Gets the number of parts the SMS text is split up to.
+     *
+     * @return SMS message part count.
+     */
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * Gets the number of characters that still fit into the last part.
+     *
+     * @return remaining septets or UCS-2 units of the last part.
+     */
+    public int getRemainingCharacters() {
+        return remainingCharacters;
+    }
+
+    /**
+     * Gets the characters that are not present in GSM charset and force the
+     * SMS text to be sent in UCS-2.
+     *
+     * @return each offending character once in order of appearance, empty
+     * string for GSM 7-bit texts.
+     */
+    public String getNonGsmCharacters() {
+        return nonGsmCharacters;
+    }
+
+    @Override
+    public String toString() {
+        return ""
+                + "Encoding: " + encoding + "\n"
+                + "Characters: " + characterCount + "\n"
+                + "Parts: " + partCount + "\n"
+                + "Remaining characters: " + remainingCharacters + "\n"
+                + "Non-GSM characters: " + nonGsmCharacters;
+    }
+}
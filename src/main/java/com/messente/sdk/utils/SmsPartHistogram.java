@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of SMS part counts and encodings of many messages.
+ *
+ * @see SmsBulkEstimator
+ * @author Jaanus Rõõmus
+ */
+public final class SmsPartHistogram {
+
+    /**
+     * Number of messages indexed by part count.
+     */
+    private long[] messagesByParts = new long[8];
+
+    /**
+     * Number of messages and parts indexed by encoding ordinal.
+     */
+    private final long[] messagesByEncoding = new long[SmsEncoding.values().length];
+    private final long[] partsByEncoding = new long[SmsEncoding.values().length];
+
+    SmsPartHistogram() {
+    }
+
+    /**
+     * Counts the message in.
+     *
+     * @param content SMS text.
+     */
+    void add(CharSequence content) {
+
+        SmsEncoding encoding = SmsEncoding.GSM_7BIT;
+        int parts = SmsLengthCalculator.getPartCount7bit(content);
+
+        if (parts == 0) {
+            encoding = SmsEncoding.UCS2;
+            parts = SmsLengthCalculator.getPartCountUnicode(content);
+        }
+
+        add(encoding, parts, 1);
+    }
+
+    private void add(SmsEncoding encoding, int parts, long messages) {
+
+        if (parts >= messagesByParts.length) {
+            messagesByParts = Arrays.copyOf(messagesByParts,
+                    Math.max(parts + 1, messagesByParts.length * 2));
+        }
+        messagesByParts[parts] += messages;
+        messagesByEncoding[encoding.ordinal()] += messages;
+        partsByEncoding[encoding.ordinal()] += parts * messages;
+    }
+
+    /**
+     * Adds the counts of other histogram to this one.
+     *
+     * @param other histogram to merge.
+     */
+    void merge(SmsPartHistogram other) {
+
+        if (other.messagesByParts.length > messagesByParts.length) {
+            messagesByParts = Arrays.copyOf(messagesByParts, other.messagesByParts.length);
+        }
+        for (int i = 0; i < other.messagesByParts.length; i++) {
+            messagesByParts[i] += other.messagesByParts[i];
+        }
+        for (int i = 0; i < messagesByEncoding.length; i++) {
+            messagesByEncoding[i] += other.messagesByEncoding[i];
+            partsByEncoding[i] += other.partsByEncoding[i];
+        }
+    }
+
+    /**
+     * Gets the number of messages.
+     *
+     * @return total number of messages.
+     */
+    public long getMessageCount() {
+        long messages = 0;
+        for (long count : messagesByEncoding) {
+            messages += count;
+        }
+        return messages;
+    }
+
+    /**
+     * Gets the number of messages that are split up to the given number of
+     * parts.
+     *
+     * @param parts part count.
+     * @return number of messages with that part count.
+     */
+    public long getMessageCount(int parts) {
+        return parts >= 0 && parts < messagesByParts.length ? messagesByParts[parts] : 0;
+    }
+
+    /**
+     * Gets the number of messages sent in the given encoding.
+     *
+     * @param encoding SMS encoding.
+     * @return number of messages in that encoding.
+     */
+    public long getMessageCount(SmsEncoding encoding) {
+        return messagesByEncoding[encoding.ordinal()];
+    }
+
+    /**
+     * Gets the total number of parts of all messages.
+     *
+     * @return total part count.
+     */
+    public long getTotalParts() {
+        long parts = 0;
+        for (long count : partsByEncoding) {
+            parts += count;
+        }
+        return parts;
+    }
+
+    /**
+     * Gets the total number of parts of messages sent in the given encoding.
+     *
+     * @param encoding SMS encoding.
+     * @return total part count in that encoding.
+     */
+    public long getTotalParts(SmsEncoding encoding) {
+        return partsByEncoding[encoding.ordinal()];
+    }
+
+    /**
+     * Gets the largest part count of a message.
+     *
+     * @return maximum part count, 0 if there are no messages.
+     */
+    public int getMaxPartCount() {
+        for (int i = messagesByParts.length - 1; i > 0; i--) {
+            if (messagesByParts[i] != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder b = new StringBuilder()
+                .append("Messages: ").append(getMessageCount()).append("\n")
+                .append("Parts: ").append(getTotalParts()).append("\n");
+
+        for (SmsEncoding encoding : SmsEncoding.values()) {
+            b.append(encoding).append(": ").append(getMessageCount(encoding))
+                    .append(" messages, ").append(getTotalParts(encoding))
+                    .append(" parts\n");
+        }
+        for (int i = 1; i <= getMaxPartCount(); i++) {
+            if (messagesByParts[i] != 0) {
+                b.append(i).append(" parts: ").append(messagesByParts[i]).append("\n");
+            }
+        }
+        return b.toString().trim();
+    }
+}
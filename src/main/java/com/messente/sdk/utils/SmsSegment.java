@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+/**
+ * Single part of SMS text. The segment is a view of the original text and
+ * doesn't copy its characters.
+ *
+ * @see SmsSegmenter
+ * @author Jaanus Rõõmus
+ */
+public final class SmsSegment implements CharSequence {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final CharSequence source;
+    private final int start;
+    private final int end;
+    private final SmsEncoding encoding;
+    private final int reference;
+    private final boolean sixteenBitReference;
+    private final int partNumber;
+    private final int partCount;
+
+    SmsSegment(CharSequence source, int start, int end, SmsEncoding encoding,
+            int reference, boolean sixteenBitReference, int partNumber, int partCount) {
+
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.encoding = encoding;
+        this.reference = reference;
+        this.sixteenBitReference = sixteenBitReference;
+        this.partNumber = partNumber;
+        this.partCount = partCount;
+    }
+
+    /**
+     * Gets the start index of the segment in the original text.
+     *
+     * @return start index, inclusive.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the end index of the segment in the original text.
+     *
+     * @return end index, exclusive.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the encoding of the segment.
+     *
+     * @return GSM 7-bit or UCS-2.
+     */
+    public SmsEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Gets the concatenated message reference number.
+     *
+     * @return reference number shared by all parts of the message.
+     */
+    public int getReference() {
+        return reference;
+    }
+
+    /**
+     * Gets the sequence number of the segment.
+     *
+     * @return part number starting from 1.
+     */
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    /**
+     * Gets the number of segments in the message.
+     *
+     * @return total part count.
+     */
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * Gets the length of the concatenation UDH.
+     *
+     * @return UDH length in octets, 0 for a single part message.
+     */
+    public int getUdhLength() {
+        if (partCount == 1) {
+            return 0;
+        }
+        return sixteenBitReference ? 7 : 6;
+    }
+
+    /**
+     * Gets the concatenation User Data Header of the segment as hex string
+     * that can be passed to
+     * {@link com.messente.sdk.options.MessenteOptions#setUdh(String)}.
+     *
+     * @return UDH as upper case hex string, null for a single part message.
+     */
+    public String getUdh() {
+
+        if (partCount == 1) {
+            return null;
+        }
+
+        char[] udh = new char[getUdhLength() * 2];
+        int i = 0;
+
+        if (sixteenBitReference) {
+            // UDHL, IEI 0x08 (16-bit reference), IEDL
+            i = hex(udh, i, 0x06);
+            i = hex(udh, i, 0x08);
+            i = hex(udh, i, 0x04);
+            i = hex(udh, i, reference >>> 8);
+        } else {
+            // UDHL, IEI 0x00 (8-bit reference), IEDL
+            i = hex(udh, i, 0x05);
+            i = hex(udh, i, 0x00);
+            i = hex(udh, i, 0x03);
+        }
+        i = hex(udh, i, reference);
+        i = hex(udh, i, partCount);
+        hex(udh, i, partNumber);
+
+        return new String(udh);
+    }
+
+    private static int hex(char[] target, int index, int octet) {
+        target[index] = HEX[(octet >>> 4) & 0x0F];
+        target[index + 1] = HEX[octet & 0x0F];
+        return index + 2;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > end - start || from > to) {
+            throw new IndexOutOfBoundsException("from " + from + ", to " + to
+                    + ", length " + length());
+        }
+        return source.subSequence(start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SMS text segmenter.
+ *
+ * Splits SMS text into the parts it is sent in and generates concatenation
+ * User Data Header for each part. Escape characters are never separated from
+ * extended characters and surrogate pairs are never split. The segments are
+ * views of the original text, no characters are copied.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Concatenated_SMS">Concatenated
+ * SMS</a>
+ * @author Jaanus Rõõmus
+ */
+public class SmsSegmenter {
+
+    /**
+     * Maximum number of parts a concatenated message can have.
+     */
+    public static final int MAX_PARTS = 255;
+
+    /**
+     * Multipart capacities with 7 octet UDH (16-bit reference).
+     */
+    private static final int GSM_7BIT_MULTIPART_LENGTH_16BIT_REF = 152;
+    private static final int UNICODE_MULTIPART_LENGTH_16BIT_REF = 66;
+
+    private final AtomicInteger nextReference = new AtomicInteger();
+
+    /**
+     * Splits SMS text into parts using 8-bit concatenation reference. The
+     * reference number is assigned by this segmenter.
+     *
+     * @param content SMS text.
+     * @return segments of the text.
+     * @throws MessenteException if the text doesn't fit into 255 parts.
+     */
+    public List<SmsSegment> split(CharSequence content) throws MessenteException {
+        return split(content, nextReference.getAndIncrement() & 0xFF, false);
+    }
+
+    /**
+     * Splits SMS text into parts.
+     *
+     * @param content SMS text.
+     * @param reference concatenated message reference number. Only the lowest
+     * 8 or 16 bits are used.
+     * @param sixteenBitReference true to use 16-bit reference number, false
+     * for 8-bit reference number.
+     * @return segments of the text.
+     * @throws MessenteException if the text doesn't fit into 255 parts.
+     */
+    public List<SmsSegment> split(CharSequence content, int reference,
+            boolean sixteenBitReference) throws MessenteException {
+
+        reference &= sixteenBitReference ? 0xFFFF : 0xFF;
+
+        int septets = 0;
+        for (int i = 0; i < content.length() && septets >= 0; i++) {
+            int charSeptets = GsmAlphabet.septets(content.charAt(i));
+            septets = charSeptets == 0 ? -1 : septets + charSeptets;
+        }
+
+        SmsEncoding encoding = septets >= 0 ? SmsEncoding.GSM_7BIT : SmsEncoding.UCS2;
+        int singlePartLength;
+        int partLength;
+
+        if (encoding == SmsEncoding.GSM_7BIT) {
+            singlePartLength = SmsLengthCalculator.GSM_7BIT_SINGLE_PART_LENGTH;
+            partLength = sixteenBitReference
+                    ? GSM_7BIT_MULTIPART_LENGTH_16BIT_REF
+                    : SmsLengthCalculator.GSM_7BIT_MULTIPART_LENGTH;
+        } else {
+            singlePartLength = SmsLengthCalculator.UNICODE_SINGLE_PART_LENGTH;
+            partLength = sixteenBitReference
+                    ? UNICODE_MULTIPART_LENGTH_16BIT_REF
+                    : SmsLengthCalculator.UNICODE_MULTIPART_LENGTH;
+        }
+
+        int length = encoding == SmsEncoding.GSM_7BIT ? septets : content.length();
+
+        // Message fits into single part, no UDH needed
+        if (length <= singlePartLength) {
+            List<SmsSegment> segments = new ArrayList<>(1);
+            segments.add(new SmsSegment(content, 0, content.length(), encoding,
+                    reference, sixteenBitReference, 1, 1));
+            return segments;
+        }
+
+        // End index of each part. Every part but the last one is filled at
+        // least up to one unit below its capacity.
+        int[] ends = new int[length / (partLength - 1) + 1];
+        int parts = 0;
+        int partUnits = 0;
+
+        for (int i = 0; i < content.length(); i++) {
+
+            char c = content.charAt(i);
+            int units;
+
+            if (encoding == SmsEncoding.GSM_7BIT) {
+                units = GsmAlphabet.septets(c);
+            } else {
+                units = SmsLengthCalculator.isSurrogatePair(content, i) ? 2 : 1;
+            }
+
+            if (partUnits + units > partLength) {
+                ends[parts++] = i;
+                partUnits = 0;
+            }
+            partUnits += units;
+
+            // Low surrogate was counted with the high one
+            if (units == 2 && encoding == SmsEncoding.UCS2) {
+                i++;
+            }
+        }
+        ends[parts++] = content.length();
+
+        if (parts > MAX_PARTS) {
+            throw new MessenteException("SMS text is too long - " + parts
+                    + " parts exceeds maximum of " + MAX_PARTS + " parts!");
+        }
+
+        List<SmsSegment> segments = new ArrayList<>(parts);
+        int start = 0;
+        for (int part = 0; part < parts; part++) {
+            segments.add(new SmsSegment(content, start, ends[part], encoding,
+                    reference, sixteenBitReference, part + 1, parts));
+            start = ends[part];
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled SMS text template.
+ *
+ * Template text contains placeholders like {{name}} that are replaced with
+ * values when the template is rendered. The template is parsed once into
+ * literal segments and placeholder slots and the GSM charset classification
+ * of the literals is precomputed, so rendering only has to classify the
+ * substituted values to get the part count of the rendered text.
+ *
+ * Compiled templates are immutable and can be shared between threads.
+ *
+ * @author Jaanus Rõõmus
+ */
+public final class SmsTemplate {
+
+    private static final String PLACEHOLDER_START = "{{";
+    private static final String PLACEHOLDER_END = "}}";
+
+    /**
+     * Literal segments, one more than there are slots.
+     */
+    private final String[] literals;
+
+    /**
+     * Index of the placeholder name of each slot.
+     */
+    private final int[] slots;
+
+    /**
+     * Distinct placeholder names in the order of their first appearance.
+     */
+    private final List<String> placeholders;
+
+    /**
+     * Precomputed counters of all literal segments.
+     */
+    private final int literalSeptets;
+    private final int literalExtendedCount;
+    private final int literalNonGsmCount;
+    private final int literalHighSurrogateCount;
+
+    private SmsTemplate(String[] literals, int[] slots, List<String> placeholders) {
+
+        this.literals = literals;
+        this.slots = slots;
+        this.placeholders = Collections.unmodifiableList(placeholders);
+
+        int septets = 0;
+        int extended = 0;
+        int nonGsm = 0;
+        int highSurrogates = 0;
+
+        for (String literal : literals) {
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                int charSeptets = GsmAlphabet.septets(c);
+                septets += charSeptets;
+                if (charSeptets == 2) {
+                    extended++;
+                } else if (charSeptets == 0) {
+                    nonGsm++;
+                    if (Character.isHighSurrogate(c)) {
+                        highSurrogates++;
+                    }
+                }
+            }
+        }
+
+        this.literalSeptets = septets;
+        this.literalExtendedCount = extended;
+        this.literalNonGsmCount = nonGsm;
+        this.literalHighSurrogateCount = highSurrogates;
+    }
+
+    /**
+     * Compiles the template.
+     *
+     * @param template template text with {{name}} placeholders.
+     * @return compiled template.
+     * @throws MessenteException if a placeholder is not closed or has no
+     * name.
+     */
+    public static SmsTemplate compile(String template) throws MessenteException {
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int index = 0;
+
+        while (true) {
+
+            int start = template.indexOf(PLACEHOLDER_START, index);
+            if (start < 0) {
+                literals.add(template.substring(index));
+                break;
+            }
+
+            int end = template.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                throw new MessenteException("Placeholder at index " + start
+                        + " is not closed!");
+            }
+
+            String name = template.substring(start + PLACEHOLDER_START.length(), end).trim();
+            if (name.isEmpty()) {
+                throw new MessenteException("Placeholder at index " + start
+                        + " has no name!");
+            }
+
+            int slot = placeholders.indexOf(name);
+            if (slot < 0) {
+                slot = placeholders.size();
+                placeholders.add(name);
+            }
+
+            literals.add(template.substring(index, start));
+            slots.add(slot);
+            index = end + PLACEHOLDER_END.length();
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+
+        return new SmsTemplate(literals.toArray(new String[literals.size()]),
+                slotArray, placeholders);
+    }
+
+    /**
+     * Gets the placeholder names of the template.
+     *
+     * @return distinct placeholder names in the order of their first
+     * appearance.
+     */
+    public List<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Renders the template.
+     *
+     * @param values placeholder values by name.
+     * @return rendered SMS text.
+     * @throws MessenteException if a placeholder has no value.
+     */
+    public String render(Map<String, ? extends CharSequence> values) throws MessenteException {
+        StringBuilder target = new StringBuilder();
+        render(values, target);
+        return target.toString();
+    }
+
+    /**
+     * Renders the template to the end of the buffer.
+     *
+     * @param values placeholder values by name.
+     * @param target buffer to append the rendered text to. The buffer can be
+     * cleared and reused for the next message.
+     * @return SMS part count of the rendered text.
+     * @throws MessenteException if a placeholder has no value.
+     */
+    public int render(Map<String, ? extends CharSequence> values, StringBuilder target)
+            throws MessenteException {
+
+        CharSequence[] ordered = new CharSequence[placeholders.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = values.get(placeholders.get(i));
+        }
+        return render(target, ordered);
+    }
+
+    /**
+     * Renders the template to the end of the buffer without placeholder
+     * lookups by name.
+     *
+     * @param target buffer to append the rendered text to. The buffer can be
+     * cleared and reused for the next message.
+     * @param values placeholder values in the order of
+     * {@link #getPlaceholders()}.
+     * @return SMS part count of the rendered text.
+     * @throws MessenteException if a placeholder has no value.
+     */
+    public int render(StringBuilder target, CharSequence... values) throws MessenteException {
+
+        if (values.length < placeholders.size()) {
+            throw new MessenteException("Expected " + placeholders.size()
+                    + " placeholder values, got " + values.length + "!");
+        }
+
+        int start = target.length();
+        int septets = literalSeptets;
+        int extended = literalExtendedCount;
+        int nonGsm = literalNonGsmCount;
+        int highSurrogates = literalHighSurrogateCount;
+
+        target.append(literals[0]);
+
+        for (int slot = 0; slot < slots.length; slot++) {
+
+            CharSequence value = values[slots[slot]];
+            if (value == null) {
+                target.setLength(start);
+                throw new MessenteException("Missing value for placeholder '"
+                        + placeholders.get(slots[slot]) + "'!");
+            }
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                int charSeptets = GsmAlphabet.septets(c);
+                septets += charSeptets;
+                if (charSeptets == 2) {
+                    extended++;
+                } else if (charSeptets == 0) {
+                    nonGsm++;
+                    if (Character.isHighSurrogate(c)) {
+                        highSurrogates++;
+                    }
+                }
+            }
+
+            target.append(value).append(literals[slot + 1]);
+        }
+
+        if (nonGsm == 0) {
+            return SmsLengthCalculator.getPartCount7bit(target, start, septets, extended > 0);
+        }
+        return SmsLengthCalculator.getPartCountUnicode(target, start, highSurrogates > 0);
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder b = new StringBuilder(literals[0]);
+        for (int slot = 0; slot < slots.length; slot++) {
+            b.append(PLACEHOLDER_START).append(placeholders.get(slots[slot]))
+                    .append(PLACEHOLDER_END).append(literals[slot + 1]);
+        }
+        return b.toString();
+    }
+}
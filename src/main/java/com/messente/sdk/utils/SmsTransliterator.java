@@ -0,0 +1,258 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.Autoconvert;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local SMS text transliterator.
+ *
+ * Replaces characters that are not present in GSM charset with GSM
+ * alternatives the same way Messente does with
+ * {@link Autoconvert#ON} and {@link Autoconvert#FULL} settings, so the part
+ * count of the converted text can be calculated before sending or the text
+ * can be sent already converted.
+ *
+ * <ul>
+ * <li>ON replaces typographic punctuation and spaces: smart quotes, dashes,
+ * ellipsis, non-breaking and zero width spaces etc.</li>
+ * <li>FULL also replaces letters with diacritics and other look-alike
+ * characters, e.g. "Õ" with "O" and "œ" with "oe".</li>
+ * <li>OFF doesn't modify the text.</li>
+ * </ul>
+ *
+ * Characters that have no GSM alternative are left as they are. The
+ * replacement tables are built once and shared by all instances.
+ *
+ * @see
+ * <a href="http://messente.com/documentation/auto-replace">http://messente.com/documentation/auto-replace</a>
+ * @author Jaanus Rõõmus
+ */
+public class SmsTransliterator {
+
+    /**
+     * Replacements applied with ON setting.
+     */
+    private static final String[][] PUNCTUATION = {
+        {"‘’‚‛′‹›`´", "'"},
+        {"“”„‟″«»", "\""},
+        {"\u2010\u2011\u2012\u2013\u2014\u2015\u2212", "-"},
+        {"…", "..."},
+        // Tab, non-breaking and typographic spaces
+        {"\t\u00a0\u2000\u2001\u2002\u2003\u2004\u2005\u2006\u2007"
+            + "\u2008\u2009\u200a\u202f\u205f\u3000", " "},
+        // Soft hyphen, zero width spaces and byte order mark
+        {"\u00ad\u200b\u200c\u200d\u2060\ufeff", ""},
+        {"•", "-"}
+    };
+
+    /**
+     * Replacements applied with FULL setting in addition to
+     * {@link #PUNCTUATION} and letters with diacritics.
+     */
+    private static final String[][] LETTERS = {
+        {"Œ", "OE"}, {"œ", "oe"}, {"Ĳ", "IJ"}, {"ĳ", "ij"},
+        {"Ł", "L"}, {"ł", "l"}, {"ĐÐ", "D"}, {"đð", "d"},
+        {"Ħ", "H"}, {"ħ", "h"}, {"ı", "i"}, {"ŧ", "t"},
+        {"Ŧ", "T"}, {"Þ", "Th"}, {"þ", "th"}, {"ª", "a"},
+        {"º", "o"}, {"¹", "1"}, {"²", "2"}, {"³", "3"},
+        {"©", "(C)"}, {"®", "(R)"}, {"™", "TM"}, {"×", "x"},
+        {"÷", "/"}, {"µ", "u"}, {"¦", "|"},
+        // Greek capitals that look like Latin letters
+        {"Α", "A"}, {"Β", "B"}, {"Ε", "E"}, {"Ζ", "Z"},
+        {"Η", "H"}, {"Ι", "I"}, {"Κ", "K"}, {"Μ", "M"},
+        {"Ν", "N"}, {"Ο", "O"}, {"Ρ", "P"}, {"Τ", "T"},
+        {"Υ", "Y"}, {"Χ", "X"}
+    };
+
+    /**
+     * Last char of Latin Extended-B block. Letters with diacritics up to this
+     * char are replaced with FULL setting.
+     */
+    private static final char LATIN_END = 'ɏ';
+
+    /**
+     * Distinct replacement strings. Replacements applied with ON setting come
+     * first.
+     */
+    private static final String[] REPLACEMENTS;
+
+    /**
+     * Number of replacements applied with ON setting.
+     */
+    private static final int PUNCTUATION_COUNT;
+
+    /**
+     * Index of the replacement in {@link #REPLACEMENTS} plus one for each
+     * char, 0 if the char is not replaced.
+     */
+    private static final char[] INDEX;
+
+    static {
+        List<String> replacements = new ArrayList<>();
+        char max = LATIN_END;
+
+        for (String[] entry : PUNCTUATION) {
+            max = (char) Math.max(max, max(entry[0]));
+        }
+        for (String[] entry : LETTERS) {
+            max = (char) Math.max(max, max(entry[0]));
+        }
+        INDEX = new char[max + 1];
+
+        for (String[] entry : PUNCTUATION) {
+            put(replacements, 0, entry[0], entry[1]);
+        }
+        PUNCTUATION_COUNT = replacements.size();
+
+        for (String[] entry : LETTERS) {
+            put(replacements, PUNCTUATION_COUNT, entry[0], entry[1]);
+        }
+
+        // Strip diacritics from Latin letters that are not in GSM charset if
+        // the remaining letter is
+        for (char c = 'À'; c <= LATIN_END; c++) {
+            if (INDEX[c] != 0 || GsmAlphabet.septets(c) != 0) {
+                continue;
+            }
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "");
+            if (!base.isEmpty() && isGsm(base)) {
+                put(replacements, PUNCTUATION_COUNT, String.valueOf(c), base);
+            }
+        }
+
+        REPLACEMENTS = replacements.toArray(new String[replacements.size()]);
+    }
+
+    private static char max(String chars) {
+        char max = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            max = (char) Math.max(max, chars.charAt(i));
+        }
+        return max;
+    }
+
+    private static boolean isGsm(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (GsmAlphabet.septets(s.charAt(i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the replacement of the chars. Replacements starting from the given
+     * index are shared, so ON replacements are never reused for FULL only
+     * chars.
+     */
+    private static void put(List<String> replacements, int from, String chars,
+            String replacement) {
+
+        int index = replacements.subList(from, replacements.size()).indexOf(replacement);
+        if (index < 0) {
+            index = replacements.size();
+            replacements.add(replacement);
+        } else {
+            index += from;
+        }
+        for (int i = 0; i < chars.length(); i++) {
+            INDEX[chars.charAt(i)] = (char) (index + 1);
+        }
+    }
+
+    /**
+     * Gets the replacement of the char.
+     *
+     * @param c character to replace.
+     * @param full true for FULL setting, false for ON setting.
+     * @return replacement string, null if the char is not replaced.
+     */
+    private static String replacement(char c, boolean full) {
+        int index = c < INDEX.length ? INDEX[c] : 0;
+        if (index == 0 || (!full && index > PUNCTUATION_COUNT)) {
+            return null;
+        }
+        return REPLACEMENTS[index - 1];
+    }
+
+    /**
+     * Converts the SMS text the same way Messente does before sending.
+     *
+     * @param content SMS text.
+     * @param autoconvert character replacement setting, null is treated as
+     * {@link Autoconvert#ON} which is the default setting.
+     * @return converted SMS text, the same text if nothing was replaced.
+     */
+    public String transliterate(CharSequence content, Autoconvert autoconvert) {
+
+        if (autoconvert == Autoconvert.OFF) {
+            return content.toString();
+        }
+
+        boolean full = autoconvert == Autoconvert.FULL;
+        StringBuilder converted = null;
+
+        for (int i = 0; i < content.length(); i++) {
+
+            char c = content.charAt(i);
+            String replacement = replacement(c, full);
+
+            if (replacement != null && converted == null) {
+                converted = new StringBuilder(content.length() + 8);
+                converted.append(content, 0, i);
+            }
+
+            if (converted != null) {
+                if (replacement != null) {
+                    converted.append(replacement);
+                } else {
+                    converted.append(c);
+                }
+            }
+        }
+
+        return converted != null ? converted.toString() : content.toString();
+    }
+
+    /**
+     * Checks whether the SMS text is changed by the conversion.
+     *
+     * @param content SMS text.
+     * @param autoconvert character replacement setting, null is treated as
+     * {@link Autoconvert#ON}.
+     * @return true if at least one character is replaced.
+     */
+    public boolean isConverted(CharSequence content, Autoconvert autoconvert) {
+
+        if (autoconvert == Autoconvert.OFF) {
+            return false;
+        }
+
+        boolean full = autoconvert == Autoconvert.FULL;
+        for (int i = 0; i < content.length(); i++) {
+            if (replacement(content.charAt(i), full) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.exception.AccountException;
+import com.messente.sdk.exception.ResponseException;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AccountGuard class.
+ *
+ * @author Lennar Kallas
+ */
+public class AccountGuardTest {
+
+    private final MessenteResponse ACCESS_RESTRICTED = new MessenteResponse("ERROR 101", 200);
+    private final MessenteResponse INVALID_IP = new MessenteResponse("ERROR 103", 200);
+    private final MessenteResponse OK = new MessenteResponse("OK 123", 200);
+    private final MessenteResponse SERVER_ERROR = new MessenteResponse("", 500);
+
+    private final AtomicLong CLOCK = new AtomicLong();
+
+    private final AccountGuard GUARD = new AccountGuard(100, CLOCK::get);
+
+    /**
+     * Test of acquire method, of class AccountGuard.
+     */
+    @Test
+    public void testAcquireFailsFast() throws AccountException {
+
+        assertFalse(GUARD.acquire());
+        GUARD.record(new MessenteResponse("ERROR 108", 200), false);
+        assertFalse(GUARD.acquire());
+
+        GUARD.record(ACCESS_RESTRICTED, false);
+        assertEquals(ResponseCode.ACCESS_RESTRICTED, GUARD.getError());
+
+        CLOCK.set(99);
+        try {
+            GUARD.acquire();
+            fail("Request should be blocked");
+        } catch (AccountException ex) {
+            assertEquals(ResponseCode.ACCESS_RESTRICTED, ex.getResponseCode());
+            assertTrue(ex instanceof ResponseException);
+            assertEquals(0, ex.getStackTrace().length);
+        }
+    }
+
+    /**
+     * Test of record method, of class AccountGuard.
+     */
+    @Test
+    public void testSingleProbe() throws AccountException {
+
+        GUARD.record(INVALID_IP, false);
+
+        CLOCK.set(100);
+        assertTrue(GUARD.acquire());
+        assertBlocked();
+
+        // Failed probe waits for another interval
+        GUARD.record(INVALID_IP, true);
+        assertBlocked();
+        CLOCK.set(200);
+        assertTrue(GUARD.acquire());
+
+        // Probe without reply from the API doesn't reset the switch
+        GUARD.record(SERVER_ERROR, true);
+        CLOCK.set(299);
+        assertBlocked();
+        CLOCK.set(300);
+        assertTrue(GUARD.acquire());
+        GUARD.fail();
+        assertBlocked();
+
+        CLOCK.set(400);
+        assertTrue(GUARD.acquire());
+        GUARD.record(OK, true);
+        assertNull(GUARD.getError());
+        assertFalse(GUARD.acquire());
+    }
+
+    /**
+     * Test of record method, of class AccountGuard.
+     */
+    @Test
+    public void testRecordPriceListReply() throws AccountException {
+
+        // Price list requests report the error code of the reply
+        GUARD.record(ResponseCode.INVALID_IP, 200, false);
+        assertBlocked();
+
+        CLOCK.set(100);
+        assertTrue(GUARD.acquire());
+        GUARD.record(ResponseCode.UNKNOWN_COUNTRY, 200, true);
+        assertNull(GUARD.getError());
+
+        GUARD.record(ResponseCode.INVALID_IP, 200, false);
+        CLOCK.set(200);
+        assertTrue(GUARD.acquire());
+        GUARD.record(null, 200, true);
+        assertFalse(GUARD.acquire());
+    }
+
+    /**
+     * Test of reset method, of class AccountGuard.
+     */
+    @Test
+    public void testReset() throws AccountException {
+
+        GUARD.record(ACCESS_RESTRICTED, false);
+        GUARD.reset();
+        assertFalse(GUARD.acquire());
+
+        // Replies to requests made before the switch tripped reset it too
+        GUARD.record(ACCESS_RESTRICTED, false);
+        GUARD.record(OK, false);
+        assertFalse(GUARD.acquire());
+    }
+
+    /**
+     * Test of record method, of class AccountGuard.
+     */
+    @Test
+    public void testDisabled() throws AccountException {
+        AccountGuard guard = new AccountGuard(0, CLOCK::get);
+        guard.record(ACCESS_RESTRICTED, false);
+        assertNull(guard.getError());
+        assertFalse(guard.acquire());
+    }
+
+    private void assertBlocked() {
+        try {
+            GUARD.acquire();
+            fail("Request should be blocked");
+        } catch (AccountException ex) {
+            assertEquals(ResponseCode.INVALID_IP, ex.getResponseCode());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for BalanceCache class.
+ *
+ * @author Lennar Kallas
+ */
+public class BalanceCacheTest {
+
+    private final AtomicLong CLOCK = new AtomicLong();
+    private final AtomicInteger REQUESTS = new AtomicInteger();
+
+    private final BalanceCache CACHE = new BalanceCache(
+            () -> new MessenteResponse("OK " + REQUESTS.incrementAndGet() + ".25", 200),
+            100, CLOCK::get);
+
+    /**
+     * Test of getBalance method, of class BalanceCache.
+     */
+    @Test
+    public void testGetBalanceCached() throws MessenteException {
+
+        MessenteResponse response = CACHE.getBalance();
+
+        CLOCK.set(99);
+        assertSame(response, CACHE.getBalance());
+        assertEquals(new BigDecimal("1.25"), CACHE.getBalanceAmount());
+        assertEquals(1, REQUESTS.get());
+
+        CLOCK.set(100);
+        assertEquals(new BigDecimal("2.25"), CACHE.getBalanceAmount());
+        assertEquals(2, REQUESTS.get());
+
+        CACHE.invalidate();
+        assertEquals("OK 3.25", CACHE.getBalance().getRawResponse());
+    }
+
+    /**
+     * Test of getBalance method, of class BalanceCache.
+     */
+    @Test
+    public void testGetBalanceSingleFlight() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final BalanceCache cache = new BalanceCache(() -> {
+            REQUESTS.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new MessenteException(ex);
+            }
+            return new MessenteResponse("OK 10.5", 200);
+        }, 0, System::nanoTime);
+
+        final CountDownLatch started = new CountDownLatch(8);
+        final List<Thread> workers = new CopyOnWriteArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(8, r -> {
+            Thread thread = new Thread(r);
+            workers.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<BigDecimal>> balances = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                balances.add(threads.submit(() -> {
+                    started.countDown();
+                    return cache.getBalanceAmount();
+                }));
+            }
+
+            started.await();
+            awaitWaiting(workers);
+            release.countDown();
+
+            for (Future<BigDecimal> balance : balances) {
+                assertEquals(new BigDecimal("10.5"), balance.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, REQUESTS.get());
+
+            // Zero time to live only shares concurrent requests
+            cache.getBalance();
+            assertEquals(2, REQUESTS.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of getBalanceAmount method, of class BalanceCache.
+     */
+    @Test
+    public void testGetBalanceFailureNotCached() throws MessenteException {
+
+        BalanceCache cache = new BalanceCache(() -> {
+            REQUESTS.incrementAndGet();
+            return new MessenteResponse("ERROR 101", 200);
+        }, 100, CLOCK::get);
+
+        assertFalse(cache.getBalance().isSuccess());
+        try {
+            cache.getBalanceAmount();
+            fail("Expected MessenteException");
+        } catch (MessenteException ex) {
+            assertTrue(ex.getMessage().startsWith("Balance not available!"));
+        }
+        assertEquals(2, REQUESTS.get());
+    }
+
+    /**
+     * Waits until all threads are waiting, i.e. blocked in the loader or on
+     * the shared load.
+     */
+    private static void awaitWaiting(List<Thread> threads) {
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.response.MessenteResponse;
+import com.messente.sdk.response.PriceTable;
+import com.messente.sdk.response.PriceTableParser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for BalanceLedger class.
+ *
+ * @author Lennar Kallas
+ */
+public class BalanceLedgerTest {
+
+    private final AtomicInteger SENT = new AtomicInteger();
+
+    private final AtomicLong CLOCK = new AtomicLong();
+
+    private final AtomicReference<String> BALANCE = new AtomicReference<>("OK 1.00");
+
+    private final PriceTable ESTONIA_PRICES;
+
+    private final CampaignCostEstimator ESTIMATOR;
+
+    private final BalanceLedger LEDGER;
+
+    public BalanceLedgerTest() throws MessenteException {
+
+        ESTONIA_PRICES = new PriceTableParser().parse(new StringReader("{\"country\": \"EE\","
+                + " \"networks\": [{\"mccmnc\": \"24801\", \"price\": \"0.05\"}]}"));
+        ESTIMATOR = new CampaignCostEstimator(
+                country -> country == Country.ESTONIA ? ESTONIA_PRICES : null);
+        LEDGER = new BalanceLedger(() -> new MessenteResponse(BALANCE.get(), 200),
+                (from, to, text, options) -> {
+                    SENT.incrementAndGet();
+                    return new MessenteResponse(text.startsWith("fail")
+                            ? "ERROR 111" : "OK id", 200);
+                }, ESTIMATOR, 100, CLOCK::get);
+    }
+
+    /**
+     * Test of reconcile method, of class BalanceLedger.
+     */
+    @Test
+    public void testReconcile() throws MessenteException {
+
+        assertEquals(0, LEDGER.getAvailableMicros());
+        assertEquals(1000000, LEDGER.reconcile());
+
+        assertTrue(LEDGER.tryDebit(300000));
+        assertEquals(700000, LEDGER.getAvailableMicros());
+
+        // Server balance doesn't include the debit yet, it stays debited
+        CLOCK.set(50);
+        assertEquals(700000, LEDGER.reconcile());
+        assertTrue(LEDGER.tryDebit(100000));
+
+        // First debit is settled and included in the server balance
+        CLOCK.set(120);
+        BALANCE.set("OK 0.70");
+        assertEquals(600000, LEDGER.reconcile());
+
+        // Refunded message was never charged by the server
+        LEDGER.refund(100000);
+        assertEquals(700000, LEDGER.getAvailableMicros());
+        CLOCK.set(300);
+        assertEquals(700000, LEDGER.reconcile());
+    }
+
+    /**
+     * Test of tryDebit method, of class BalanceLedger.
+     */
+    @Test
+    public void testTryDebitConcurrent() throws Exception {
+
+        LEDGER.reconcile();
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(threads.submit(() -> {
+                    int debits = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (LEDGER.tryDebit(700)) {
+                            debits++;
+                        }
+                    }
+                    return debits;
+                }));
+            }
+
+            int debits = 0;
+            for (Future<Integer> result : results) {
+                debits += result.get();
+            }
+
+            // Budget is never exceeded
+            assertEquals(1000000 / 700, debits);
+            assertEquals(1000000 % 700, LEDGER.getAvailableMicros());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of sendSMS method, of class BalanceLedger.
+     */
+    @Test
+    public void testSendSMS() throws MessenteException {
+
+        LEDGER.reconcile();
+
+        assertTrue(LEDGER.sendSMS(null, "+37255555555", "Hello", null).isSuccess());
+        assertEquals(950000, LEDGER.getAvailableMicros());
+
+        // Rejected by the API, cost is refunded
+        assertFalse(LEDGER.sendSMS(null, "+37255555555", "fail", null).isSuccess());
+        assertEquals(950000, LEDGER.getAvailableMicros());
+
+        // 19 messages left in the budget
+        for (int i = 0; i < 19; i++) {
+            LEDGER.sendSMS(null, "+37255555555", "Hello", null);
+        }
+        try {
+            LEDGER.sendSMS(null, "+37255555555", "Hello", null);
+            fail("Expected MessenteException");
+        } catch (MessenteException ex) {
+            assertTrue(ex.getMessage().startsWith("Insufficient balance!"));
+        }
+        assertEquals(21, SENT.get());
+    }
+
+    /**
+     * Test of sendSMS method, of class BalanceLedger.
+     */
+    @Test(expected = MessenteException.class)
+    public void testSendSMSUnknownCost() throws MessenteException {
+        LEDGER.reconcile();
+        LEDGER.sendSMS(null, "+37120000000", "Hello", null);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for CampaignCostEstimator class.
+ *
+ * @author Lennar Kallas
+ */
+public class CampaignCostEstimatorTest {
+
+    private final AtomicInteger REQUESTS = new AtomicInteger();
+
+    /**
+     * Price list cache with prices for Estonia and Latvia and an API error
+     * for the rest.
+     */
+    private final PriceListCache CACHE = new PriceListCache(country -> {
+        REQUESTS.incrementAndGet();
+        if (country == Country.ESTONIA) {
+            return new MessenteResponse("{\"country\": \"EE\", \"networks\": ["
+                    + "{\"mccmnc\": \"24801\", \"price\": \"0.04\"},"
+                    + "{\"mccmnc\": \"24802\", \"price\": \"0.05\"}]}", 200);
+        }
+        if (country == Country.LATVIA) {
+            return new MessenteResponse("<prices><country>LV</country><networks>"
+                    + "<network><mccmnc>24701</mccmnc><price>0.035</price></network>"
+                    + "</networks></prices>", 200);
+        }
+        return new MessenteResponse("ERROR 104", 200);
+    }, TimeUnit.HOURS.toNanos(1), Runnable::run, System::nanoTime);
+
+    private final CampaignCostEstimator ESTIMATOR = new CampaignCostEstimator(CACHE);
+
+    private final List<String> RECIPIENTS = Arrays.asList(
+            "+372 5555 5555", "003725123456", "+37120000000",
+            "+358401234567", "not a number", "+99912345678");
+
+    /**
+     * Test of estimate method, of class CampaignCostEstimator.
+     */
+    @Test
+    public void testEstimateBroadcast() throws MessenteException {
+
+        CampaignCost cost = ESTIMATOR.estimate(RECIPIENTS, "Hello");
+
+        assertEquals(EnumSet.of(Country.ESTONIA, Country.LATVIA, Country.FINLAND),
+                cost.getCountries());
+        assertEquals(EnumSet.of(Country.FINLAND), cost.getUnpricedCountries());
+        assertEquals(4, cost.getMessageCount());
+        assertEquals(2, cost.getUnresolvedCount());
+        assertEquals(2, cost.getTotalParts(Country.ESTONIA));
+
+        // Highest network price of the country
+        assertEquals(100000, cost.getCostMicros(Country.ESTONIA));
+        assertEquals(35000, cost.getCostMicros(Country.LATVIA));
+        assertEquals(0, cost.getCostMicros(Country.FINLAND));
+        assertEquals(135000, cost.getTotalCostMicros());
+        assertEquals(0.135, cost.getTotalCost(), 1e-9);
+    }
+
+    /**
+     * Test of estimate method, of class CampaignCostEstimator.
+     */
+    @Test
+    public void testEstimatePersonalized() throws MessenteException {
+
+        List<String[]> messages = new ArrayList<>();
+        IntStream.range(0, 10000).forEach(i -> messages.add(new String[]{
+            i % 2 == 0 ? "+37255" + (100000 + i) : "+371" + (20000000 + i),
+            i % 10 == 0 ? new String(new char[200]).replace('\0', 'a') : "Hi " + i}));
+
+        CampaignCost cost = ESTIMATOR.estimate(messages.stream(), m -> m[0], m -> m[1]);
+
+        assertEquals(5000, cost.getMessageCount(Country.ESTONIA));
+        assertEquals(5000, cost.getMessageCount(Country.LATVIA));
+
+        // Every 10th message is two parts and goes to Estonia
+        assertEquals(6000, cost.getTotalParts(Country.ESTONIA));
+        assertEquals(5000, cost.getTotalParts(Country.LATVIA));
+        assertEquals(6000 * 50000L + 5000 * 35000L, cost.getTotalCostMicros());
+    }
+
+    /**
+     * Test of estimate method, of class CampaignCostEstimator.
+     */
+    @Test
+    public void testEstimateWarmCache() throws MessenteException {
+
+        ESTIMATOR.estimate(RECIPIENTS, "Hello");
+        int requests = REQUESTS.get();
+
+        CampaignCost cost = ESTIMATOR.estimate(RECIPIENTS, "Hello €");
+
+        // Unsuccessful responses are not cached, only Finland is requested again
+        assertEquals(requests + 1, REQUESTS.get());
+        assertEquals(135000, cost.getTotalCostMicros());
+    }
+}
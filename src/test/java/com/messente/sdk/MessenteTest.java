@@ -19,7 +19,9 @@ import com.messente.sdk.enums.Autoconvert;
 import com.messente.sdk.enums.Country;
 import com.messente.sdk.enums.HttpMethod;
 import com.messente.sdk.enums.HttpProtocol;
+import com.messente.sdk.enums.RequestError;
 import com.messente.sdk.enums.ResponseFormat;
+import com.messente.sdk.exception.MessenteException;
 import com.messente.sdk.options.MessenteOptions;
 
 import org.junit.After;
@@ -553,4 +555,58 @@ public class MessenteTest {
             fail(e.getMessage());
         }
     }
+
+    /**
+     * Test of getMessagingUrlResult method, of class Messente.
+     */
+    @Test
+    public void testGetMessagingUrlResult() throws MessenteException {
+
+        UrlResult result = MESSENTE.getMessagingUrlResult(
+                DUMMY_SENDER, DUMMY_RECIPIENT, DUMMY_SMS, null);
+        assertTrue(result.isValid());
+        assertEquals(MESSENTE.getMessagingURL(DUMMY_SENDER, DUMMY_RECIPIENT, DUMMY_SMS),
+                result.getUrl());
+
+        assertEquals(RequestError.MISSING_RECIPIENT,
+                MESSENTE.getMessagingUrlResult(null, " ", DUMMY_SMS, null).getError());
+        assertEquals(RequestError.MISSING_TEXT,
+                MESSENTE.getMessagingUrlResult(null, DUMMY_RECIPIENT, "", null).getError());
+
+        result = MESSENTE.getMessagingUrlResult(null, "+372 abc", DUMMY_SMS, null);
+        assertEquals(RequestError.INVALID_RECIPIENT, result.getError());
+        assertNull(result.getUrl());
+        assertEquals("Can't build URL : Phone number contains an invalid character!",
+                result.getMessage());
+        assertSame(result, MESSENTE.getMessagingUrlResult(null, "+372 xyz", DUMMY_SMS, null));
+
+        try {
+            result.getUrlOrThrow();
+            fail("Expected MessenteException");
+        } catch (MessenteException ex) {
+            assertEquals(result.getMessage(), ex.getMessage());
+            assertEquals(0, ex.getStackTrace().length);
+        }
+    }
+
+    /**
+     * Test of getStartVerificationUrlResult and getPinVerificationUrlResult
+     * methods, of class Messente.
+     */
+    @Test
+    public void testGetVerificationUrlResult() {
+
+        assertTrue(MESSENTE.getStartVerificationUrlResult(
+                null, DUMMY_RECIPIENT, DUMMY_TEMPLATE, null, null).isValid());
+        assertEquals(RequestError.INVALID_TEMPLATE, MESSENTE.getStartVerificationUrlResult(
+                null, DUMMY_RECIPIENT, "No pin", MESSENTE_OPTIONS, null).getError());
+        assertEquals(RequestError.INVALID_COOKIE, MESSENTE.getStartVerificationUrlResult(
+                null, DUMMY_RECIPIENT, null, MESSENTE_OPTIONS, " ").getError());
+
+        assertTrue(MESSENTE.getPinVerificationUrlResult(DUMMY_MSGID, "1234", null, null).isValid());
+        assertEquals(RequestError.MISSING_VERIFICATION_ID,
+                MESSENTE.getPinVerificationUrlResult(null, "1234", null, null).getError());
+        assertEquals(RequestError.MISSING_PIN,
+                MESSENTE.getPinVerificationUrlResult(DUMMY_MSGID, " ", null, null).getError());
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for NegativeCache class and its use in Messente class.
+ *
+ * @author Lennar Kallas
+ */
+public class NegativeCacheTest {
+
+    private final AtomicLong CLOCK = new AtomicLong();
+
+    private final NegativeCache CACHE = new NegativeCache(100, 3, CLOCK::get);
+
+    /**
+     * Test of contains method, of class NegativeCache.
+     */
+    @Test
+    public void testContainsExpires() {
+
+        CACHE.add("+37255555555");
+        assertTrue(CACHE.contains("+37255555555"));
+        assertFalse(CACHE.contains("+37255555556"));
+        assertFalse(CACHE.contains(null));
+
+        CLOCK.set(99);
+        assertTrue(CACHE.contains("+37255555555"));
+
+        CLOCK.set(100);
+        assertFalse(CACHE.contains("+37255555555"));
+        assertEquals(0, CACHE.size());
+    }
+
+    /**
+     * Test of add method, of class NegativeCache.
+     */
+    @Test
+    public void testAddBounded() {
+
+        for (int i = 0; i < 10; i++) {
+            CLOCK.set(i);
+            CACHE.add("key" + i);
+            assertTrue(CACHE.size() <= 3);
+        }
+
+        // Oldest keys are dropped first
+        assertFalse(CACHE.contains("key6"));
+        assertTrue(CACHE.contains("key7"));
+        assertTrue(CACHE.contains("key9"));
+
+        // Key added again gets a new expiry
+        CACHE.add("key7");
+        CLOCK.set(108);
+        assertTrue(CACHE.contains("key7"));
+        assertFalse(CACHE.contains("key8"));
+
+        CACHE.clear();
+        assertFalse(CACHE.contains("key7"));
+    }
+
+    /**
+     * Test of add method, of class NegativeCache.
+     */
+    @Test
+    public void testDisabled() {
+        NegativeCache cache = new NegativeCache(0, 10, CLOCK::get);
+        cache.add("key");
+        assertFalse(cache.contains("key"));
+    }
+
+    /**
+     * Test of getCachedRejection method, of class Messente.
+     */
+    @Test
+    public void testGetCachedRejection() {
+
+        Messente messente = new Messente("user", "pass");
+        MessenteResponse blacklisted = new MessenteResponse("ERROR 108", 200);
+        MessenteResponse invalidSender = new MessenteResponse("ERROR 111", 200);
+
+        assertNull(messente.getCachedRejection(null, "+37255555555"));
+
+        messente.rememberRejection(null, "+37255555555", blacklisted);
+        messente.rememberRejection("BadSender", "+37255555556", invalidSender);
+        messente.rememberRejection("Sender", "+37255555557",
+                new MessenteResponse("ERROR 102", 200));
+
+        // Same number in other notation is rejected too
+        String recipient = messente.getMessagingUrlResult(
+                "Sender", "00372 5555 5555", "Text", null).getRecipient();
+        assertEquals("+37255555555", recipient);
+        assertSame(MessenteResponse.of(ResponseCode.BLACKLISTED_NR),
+                messente.getCachedRejection("Sender", recipient));
+        assertSame(MessenteResponse.of(ResponseCode.INVALID_SENDER),
+                messente.getCachedRejection("BadSender", "+37255555558"));
+        assertEquals("ERROR 111",
+                messente.getCachedRejection("BadSender", "+37255555558").getRawResponse());
+        assertNull(messente.getCachedRejection("Sender", "+37255555557"));
+        assertNull(messente.getCachedRejection("", "+37255555556"));
+
+        messente.clearNegativeCaches();
+        assertNull(messente.getCachedRejection(null, "+37255555555"));
+
+        messente.setNegativeCaching(0, TimeUnit.SECONDS, 10);
+        messente.rememberRejection(null, "+37255555555", blacklisted);
+        assertNull(messente.getCachedRejection(null, "+37255555555"));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.response.MessenteResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PriceListCache class.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceListCacheTest {
+
+    private final AtomicLong CLOCK = new AtomicLong();
+    private final AtomicInteger REQUESTS = new AtomicInteger();
+    private final List<Runnable> REFRESHES = new ArrayList<>();
+
+    private final PriceListCache CACHE = new PriceListCache(
+            country -> new MessenteResponse("{\"country\":\"" + country
+                    + "\",\"version\":" + REQUESTS.incrementAndGet() + "}", 200),
+            100, REFRESHES::add, CLOCK::get);
+
+    /**
+     * Test of getPriceList method, of class PriceListCache.
+     */
+    @Test
+    public void testGetPriceListCached() throws MessenteException {
+
+        MessenteResponse response = CACHE.getPriceList(Country.ESTONIA);
+
+        assertSame(response, CACHE.getPriceList(Country.ESTONIA));
+        assertEquals(1, REQUESTS.get());
+
+        CACHE.getPriceList(Country.LATVIA);
+        assertEquals(2, REQUESTS.get());
+    }
+
+    /**
+     * Test of getPriceList method, of class PriceListCache.
+     */
+    @Test
+    public void testGetPriceListServesStaleWhileRefreshing() throws MessenteException {
+
+        MessenteResponse stale = CACHE.getPriceList(Country.ESTONIA);
+        CLOCK.set(100);
+
+        // Expired price list is served until the refresh completes
+        assertSame(stale, CACHE.getPriceList(Country.ESTONIA));
+        assertSame(stale, CACHE.getPriceList(Country.ESTONIA));
+        assertEquals(1, REFRESHES.size());
+
+        REFRESHES.get(0).run();
+        MessenteResponse fresh = CACHE.getPriceList(Country.ESTONIA);
+
+        assertNotSame(stale, fresh);
+        assertTrue(fresh.getRawResponse().contains("\"version\":2"));
+        assertEquals(2, REQUESTS.get());
+    }
+
+    /**
+     * Test of getPriceList method, of class PriceListCache.
+     */
+    @Test
+    public void testGetPriceListRefreshRejected() throws MessenteException {
+
+        final AtomicInteger submitted = new AtomicInteger();
+        PriceListCache cache = new PriceListCache(
+                country -> new MessenteResponse("{\"version\":"
+                        + REQUESTS.incrementAndGet() + "}", 200),
+                100, task -> {
+                    if (submitted.incrementAndGet() == 1) {
+                        throw new RejectedExecutionException("Queue full");
+                    }
+                    task.run();
+                }, CLOCK::get);
+
+        MessenteResponse stale = cache.getPriceList(Country.ESTONIA);
+        CLOCK.set(100);
+
+        // Rejected refresh keeps the expired price list and is retried
+        assertSame(stale, cache.getPriceList(Country.ESTONIA));
+        assertSame(stale, cache.getPriceList(Country.ESTONIA));
+        assertEquals(2, submitted.get());
+        assertTrue(cache.getPriceList(Country.ESTONIA).getRawResponse().contains("\"version\":2"));
+    }
+
+    /**
+     * Test of getPriceList method, of class PriceListCache.
+     */
+    @Test
+    public void testGetPriceListSingleFlight() throws Exception {
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final PriceListCache cache = new PriceListCache(country -> {
+            REQUESTS.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                throw new MessenteException(ex);
+            }
+            return new MessenteResponse("{}", 200);
+        }, TimeUnit.MINUTES.toNanos(1), Runnable::run, System::nanoTime);
+
+        final CountDownLatch started = new CountDownLatch(8);
+        final List<Thread> workers = new CopyOnWriteArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(8, r -> {
+            Thread thread = new Thread(r);
+            workers.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<MessenteResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(threads.submit(() -> {
+                    started.countDown();
+                    return cache.getPriceList(Country.FINLAND);
+                }));
+            }
+
+            started.await();
+            awaitWaiting(workers);
+            release.countDown();
+
+            for (Future<MessenteResponse> response : responses) {
+                assertSame(responses.get(0).get(), response.get());
+            }
+            assertEquals(1, REQUESTS.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Test of getPriceList method, of class PriceListCache.
+     */
+    @Test
+    public void testGetPriceListFailureNotCached() throws MessenteException {
+
+        PriceListCache cache = new PriceListCache(country -> {
+            REQUESTS.incrementAndGet();
+            return new MessenteResponse("ERROR 104", 200);
+        }, 100, REFRESHES::add, CLOCK::get);
+
+        assertFalse(cache.getPriceList(Country.ESTONIA).isSuccess());
+        assertFalse(cache.getPriceList(Country.ESTONIA).isSuccess());
+        assertEquals(2, REQUESTS.get());
+    }
+
+    /**
+     * Waits until all threads are waiting, i.e. blocked in the loader or on
+     * the shared load.
+     */
+    private static void awaitWaiting(List<Thread> threads) {
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk;
+
+import com.messente.sdk.enums.Country;
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.exception.ResponseException;
+import com.messente.sdk.response.PriceMatrix;
+import com.messente.sdk.response.PriceTable;
+import com.messente.sdk.response.PriceTableParser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for PriceMatrixLoader and PriceMatrix classes.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceMatrixLoaderTest {
+
+    private final PriceTableParser PARSER = new PriceTableParser();
+
+    private final AtomicInteger ACTIVE = new AtomicInteger();
+    private final AtomicInteger MAX_ACTIVE = new AtomicInteger();
+
+    /**
+     * Serves price lists for Estonia and Latvia, unknown country error for the
+     * rest.
+     */
+    private final PriceMatrixLoader.TableLoader LOADER = country -> {
+
+        MAX_ACTIVE.accumulateAndGet(ACTIVE.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(1);
+            if (country != Country.ESTONIA && country != Country.LATVIA) {
+                throw new ResponseException(ResponseCode.UNKNOWN_COUNTRY,
+                        "Price list not available! Unknown country");
+            }
+            return PARSER.parse(new StringReader("{\"country\": \"" + country
+                    + "\", \"name\": \"" + country.name() + "\", \"prefix\": \""
+                    + country.getDiallingCodes()[0] + "\", \"networks\": ["
+                    + "{\"mccmnc\": \"0" + country.ordinal() + "001\", \"name\": \"Net \\u00c4\","
+                    + " \"price\": \"0.0455\"}]}"));
+        } catch (InterruptedException ex) {
+            throw new MessenteException(ex);
+        } finally {
+            ACTIVE.decrementAndGet();
+        }
+    };
+
+    /**
+     * Test of load method, of class PriceMatrixLoader.
+     */
+    @Test
+    public void testLoad() throws MessenteException {
+
+        PriceMatrix matrix = new PriceMatrixLoader(LOADER, 4).load();
+
+        assertEquals(EnumSet.of(Country.ESTONIA, Country.LATVIA), matrix.getCountries());
+        assertEquals("EE", matrix.get(Country.ESTONIA).getCountry());
+        assertEquals(45500, matrix.get(Country.LATVIA).getPriceMicros(0));
+        assertNull(matrix.get(Country.FINLAND));
+        assertTrue(MAX_ACTIVE.get() <= 4);
+    }
+
+    /**
+     * Test of load method, of class PriceMatrixLoader.
+     */
+    @Test
+    public void testLoadConnectionFailure() throws MessenteException {
+
+        PriceMatrixLoader loader = new PriceMatrixLoader(country -> {
+            if (country == Country.LATVIA) {
+                throw new MessenteException("Connection refused",
+                        new ConnectException("Connection refused"));
+            }
+            return LOADER.load(country);
+        }, 2);
+
+        try {
+            loader.load(Arrays.asList(Country.ESTONIA, Country.LATVIA));
+            fail("Expected MessenteException");
+        } catch (MessenteException ex) {
+            assertTrue(ex.getCause() instanceof IOException);
+        }
+    }
+
+    /**
+     * Test of load method, of class PriceMatrixLoader.
+     */
+    @Test
+    public void testLoadAccountError() throws MessenteException {
+
+        PriceMatrixLoader loader = new PriceMatrixLoader(country -> {
+            throw new ResponseException(ResponseCode.ACCESS_RESTRICTED,
+                    "Price list not available! Access restricted");
+        }, 1);
+
+        try {
+            loader.load();
+            fail("Expected ResponseException");
+        } catch (ResponseException ex) {
+            assertEquals(ResponseCode.ACCESS_RESTRICTED, ex.getResponseCode());
+        }
+    }
+
+    /**
+     * Test of constructor, of class PriceMatrixLoader.
+     */
+    @Test(expected = MessenteException.class)
+    public void testInvalidParallelism() throws MessenteException {
+        new PriceMatrixLoader(LOADER, 0);
+    }
+
+    /**
+     * Test of save and map methods, of class PriceMatrix.
+     */
+    @Test
+    public void testSnapshot() throws MessenteException, IOException {
+
+        PriceMatrix matrix = new PriceMatrixLoader(LOADER, 2)
+                .load(Arrays.asList(Country.ESTONIA, Country.LATVIA, Country.FINLAND));
+
+        Path directory = Files.createTempDirectory("price-matrix");
+        Path file = directory.resolve("prices.bin");
+        try {
+            matrix.save(file);
+            PriceMatrix mapped = PriceMatrix.map(file);
+
+            assertEquals(matrix.getCreatedAt(), mapped.getCreatedAt());
+            assertEquals(matrix.getCountries(), mapped.getCountries());
+
+            for (Country country : matrix.getCountries()) {
+                PriceTable expected = matrix.get(country);
+                PriceTable actual = mapped.get(country);
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals(expected.getMccMnc(0), actual.getMccMnc(0));
+                assertEquals("Net \u00c4", actual.getNetworkName(0));
+            }
+            assertNull(mapped.get(Country.FINLAND));
+
+            // Saving over an existing snapshot replaces it
+            new PriceMatrix(new EnumMap<>(Country.class), 1).save(file);
+            assertTrue(PriceMatrix.map(file).getCountries().isEmpty());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Test of map method, of class PriceMatrix.
+     */
+    @Test(expected = MessenteException.class)
+    public void testMapInvalidSnapshot() throws MessenteException, IOException {
+
+        Path file = Files.createTempFile("price-matrix", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+            PriceMatrix.map(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
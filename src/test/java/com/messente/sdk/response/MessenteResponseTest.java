@@ -15,6 +15,11 @@
  */
 package com.messente.sdk.response;
 
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.enums.ResponseStatus;
+
+import java.nio.charset.StandardCharsets;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -68,7 +73,12 @@ public class MessenteResponseTest {
      */
     @Test
     public void testIsSuccess() {
-
+        assertTrue(new MessenteResponse("OK 123", 200).isSuccess());
+        assertTrue(new MessenteResponse("{\"country\": \"EE\"}", 200).isSuccess());
+        assertFalse(new MessenteResponse("ERROR 101", 200).isSuccess());
+        assertFalse(new MessenteResponse("FAILED 209", 200).isSuccess());
+        assertFalse(new MessenteResponse(" ", 200).isSuccess());
+        assertFalse(new MessenteResponse(null, 500).isSuccess());
     }
 
     /**
@@ -108,7 +118,96 @@ public class MessenteResponseTest {
      */
     @Test
     public void testGetFailureMessage() {
+        assertEquals(MessenteResponse.INVALID_IP,
+                new MessenteResponse("ERROR 103", 200).getFailureMessage());
+        assertEquals(MessenteResponse.SERVER_FAILURE,
+                new MessenteResponse("FAILED 209", 200).getFailureMessage());
+        assertEquals("ERROR 999", new MessenteResponse("ERROR 999", 200).getFailureMessage());
+        assertEquals("ERROR 10x", new MessenteResponse("ERROR 10x", 200).getFailureMessage());
+    }
+
+    /**
+     * Test of getStatus method, of class MessenteResponse.
+     */
+    @Test
+    public void testGetStatus() {
+        assertEquals(ResponseStatus.OK, new MessenteResponse("OK 1", 200).getStatus());
+        assertEquals(ResponseStatus.ERROR, new MessenteResponse("ERROR 104", 200).getStatus());
+        assertEquals(ResponseStatus.FAILED, new MessenteResponse("FAILED 102", 200).getStatus());
+        assertEquals(ResponseStatus.EMPTY, new MessenteResponse("", 200).getStatus());
+    }
 
+    /**
+     * Test of getCode and getResponseCode methods, of class MessenteResponse.
+     */
+    @Test
+    public void testGetResponseCode() {
+
+        MessenteResponse response = new MessenteResponse("ERROR 108", 200);
+        assertEquals(108, response.getCode());
+        assertEquals(ResponseCode.BLACKLISTED_NR, response.getResponseCode());
+
+        // Same number, different status
+        assertEquals(ResponseCode.PARAMETERS_WRONG_OR_MISSING,
+                new MessenteResponse("ERROR 102", 200).getResponseCode());
+        assertEquals(ResponseCode.NO_DLR, new MessenteResponse("FAILED 102", 200).getResponseCode());
+        assertTrue(new MessenteResponse("FAILED 209", 200).getResponseCode().isRetryable());
+
+        assertEquals(999, new MessenteResponse("ERROR 999", 200).getCode());
+        assertNull(new MessenteResponse("ERROR 999", 200).getResponseCode());
+        assertEquals(-1, new MessenteResponse("OK 108", 200).getCode());
+        assertNull(new MessenteResponse("OK 108", 200).getResponseCode());
+    }
+
+    /**
+     * Test of isSuccess method, of class MessenteDeliveryStatus.
+     */
+    @Test
+    public void testDeliveryStatus() {
+        MessenteDeliveryStatus status = new MessenteDeliveryStatus("FAILED 102", 200);
+        assertTrue(status.isSuccess());
+        assertEquals(MessenteDeliveryStatus.NO_DLR_YET, status.getResult());
+        assertEquals("DELIVERED", new MessenteDeliveryStatus("OK DELIVERED", 200).getResult());
+        assertFalse(new MessenteDeliveryStatus("ERROR 107", 200).isSuccess());
     }
 
+    /**
+     * Test of of method, of class MessenteResponse.
+     */
+    @Test
+    public void testOf() {
+
+        byte[] body = "ERROR 102\r\n".getBytes(StandardCharsets.US_ASCII);
+        MessenteResponse response = MessenteResponse.of(body, body.length, 200);
+
+        assertEquals("ERROR 102", response.getRawResponse());
+        assertEquals(ResponseCode.PARAMETERS_WRONG_OR_MISSING, response.getResponseCode());
+        assertSame(response, MessenteResponse.of(body, body.length - 2, 200));
+
+        // Other HTTP codes are not shared
+        assertNotSame(response, MessenteResponse.of(body, body.length, 500));
+
+        byte[] other = "OK 1234\nabc\u00e4".getBytes(StandardCharsets.UTF_8);
+        MessenteResponse decoded = MessenteResponse.of(other, other.length, 200);
+        assertEquals("OK 1234abc\u00e4", decoded.getRawResponse());
+        assertNotSame(decoded, MessenteResponse.of(other, other.length, 200));
+
+        assertEquals(ResponseStatus.EMPTY, MessenteResponse.of(new byte[8], 0, 200).getStatus());
+    }
+
+    /**
+     * Test of of method, of class MessenteDeliveryStatus.
+     */
+    @Test
+    public void testDeliveryStatusOf() {
+
+        byte[] body = "OK DELIVERED".getBytes(StandardCharsets.US_ASCII);
+        MessenteDeliveryStatus status = MessenteDeliveryStatus.of(
+                MessenteResponse.of(body, body.length, 200));
+
+        assertEquals(MessenteDeliveryStatus.DELIVERED, status.getResult());
+        assertSame(status, MessenteDeliveryStatus.of(new MessenteResponse("OK DELIVERED", 200)));
+        assertEquals("OK 5", MessenteDeliveryStatus.of(
+                new MessenteResponse("OK 5", 200)).getRawResponse());
+    }
 }
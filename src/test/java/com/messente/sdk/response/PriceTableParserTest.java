@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.response;
+
+import com.messente.sdk.enums.ResponseCode;
+import com.messente.sdk.exception.MessenteException;
+import com.messente.sdk.exception.ResponseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in PriceTableParser class.
+ *
+ * @author Lennar Kallas
+ */
+public class PriceTableParserTest {
+
+    private final PriceTableParser PARSER = new PriceTableParser();
+
+    private final String JSON_PRICES = "{\n"
+            + "  \"country\": \"EE\",\n"
+            + "  \"name\": \"Estonia\",\n"
+            + "  \"prefix\": \"372\",\n"
+            + "  \"extra\": {\"nested\": [1, 2.5, true, null, \"x\"]},\n"
+            + "  \"networks\": [\n"
+            + "    {\"mccmnc\": \"24801\", \"name\": \"Telia \\\"EMT\\\"\", \"price\": \"0.05000\"},\n"
+            + "    {\"mccmnc\": \"24802\", \"name\": \"Elisa\", \"price\": 0.0455},\n"
+            + "    {\"mccmnc\": \"24803\", \"name\": \"Tele2 \\u00c4\", \"price\": \"0.0400005\"}\n"
+            + "  ]\n"
+            + "}";
+
+    private final String XML_PRICES = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<prices>\n"
+            + "  <country>EE</country>\n"
+            + "  <name>Estonia</name>\n"
+            + "  <prefix>372</prefix>\n"
+            + "  <!-- networks -->\n"
+            + "  <networks>\n"
+            + "    <network id=\"1\"><mccmnc>24801</mccmnc><name>Telia &quot;EMT&quot;</name>"
+            + "<price>0.05000</price></network>\n"
+            + "    <network><mccmnc>24802</mccmnc><name><![CDATA[Elisa]]></name>"
+            + "<price>0.0455</price><extra/></network>\n"
+            + "    <network><mccmnc>24803</mccmnc><name>Tele2 &#196;</name>"
+            + "<price>0.0400005</price></network>\n"
+            + "  </networks>\n"
+            + "</prices>";
+
+    /**
+     * Test of parse method, of class PriceTableParser.
+     */
+    @Test
+    public void testParseJson() throws MessenteException {
+        assertPrices(PARSER.parse(new ByteArrayInputStream(
+                JSON_PRICES.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Test of parse method, of class PriceTableParser.
+     */
+    @Test
+    public void testParseXml() throws MessenteException {
+        assertPrices(PARSER.parse(new StringReader(XML_PRICES)));
+    }
+
+    private void assertPrices(PriceTable table) {
+
+        assertEquals("EE", table.getCountry());
+        assertEquals("Estonia", table.getName());
+        assertEquals("372", table.getPrefix());
+        assertEquals(3, table.getNetworkCount());
+
+        assertEquals("24801", table.getMccMnc(0));
+        assertEquals("Telia \"EMT\"", table.getNetworkName(0));
+        assertEquals(50000, table.getPriceMicros(0));
+        assertEquals(0.05, table.getPrice(0), 1e-9);
+
+        assertEquals("Elisa", table.getNetworkName(1));
+        assertEquals(45500, table.getPriceMicros(1));
+
+        assertEquals("Tele2 Ä", table.getNetworkName(2));
+        assertEquals(40001, table.getPriceMicros(2));
+        assertEquals(2, table.indexOf(24803));
+        assertEquals(50000, table.getMaxPriceMicros());
+    }
+
+    /**
+     * Test of parse method, of class PriceTableParser.
+     */
+    @Test
+    public void testParseErrorResponse() {
+        try {
+            PARSER.parse(new StringReader("ERROR 104"));
+            fail("Error response must not be parsed");
+        } catch (ResponseException ex) {
+            assertEquals(ResponseCode.UNKNOWN_COUNTRY, ex.getResponseCode());
+            assertTrue(ex.getMessage().contains(MessenteResponse.UNKNOWN_COUNTRY));
+        } catch (MessenteException ex) {
+            fail("Error response must be a ResponseException");
+        }
+
+        try {
+            PARSER.parse(new StringReader("FAILED 209"));
+            fail("Error response must not be parsed");
+        } catch (ResponseException ex) {
+            assertEquals(ResponseCode.SERVER_FAILURE, ex.getResponseCode());
+        } catch (MessenteException ex) {
+            fail("Error response must be a ResponseException");
+        }
+    }
+
+    /**
+     * Test of parse method, of class PriceTableParser.
+     */
+    @Test(expected = MessenteException.class)
+    public void testParseMalformedJson() throws MessenteException {
+        PARSER.parse(new StringReader("{\"networks\": [{\"mccmnc\": \"24801\", \"price\": }]}"));
+    }
+
+    /**
+     * Test of parseMicros method, of class PriceTableParser.
+     */
+    @Test
+    public void testParseMicros() throws MessenteException {
+        assertEquals(1000000, PriceTableParser.parseMicros("1"));
+        assertEquals(123456, PriceTableParser.parseMicros("0.123456"));
+        assertEquals(123457, PriceTableParser.parseMicros("0.1234565"));
+        assertEquals(-500000, PriceTableParser.parseMicros("-.5"));
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.Country;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in CountryPrefixIndex class.
+ *
+ * @author Lennar Kallas
+ */
+public class CountryPrefixIndexTest {
+
+    private final CountryPrefixIndex INDEX;
+
+    public CountryPrefixIndexTest() {
+        this.INDEX = new CountryPrefixIndex();
+    }
+
+    /**
+     * Test of resolve method, of class CountryPrefixIndex.
+     */
+    @Test
+    public void testResolve() {
+
+        assertEquals(Country.ESTONIA, INDEX.resolve("+3725123456"));
+        assertEquals(Country.ESTONIA, INDEX.resolve("3725123456"));
+        assertEquals(Country.FINLAND, INDEX.resolve("+358401234567"));
+        assertEquals(Country.UNITED_KINGDOM, INDEX.resolve("+447911123456"));
+    }
+
+    /**
+     * Test of resolve method, of class CountryPrefixIndex.
+     */
+    @Test
+    public void testResolveSharedCountryCode() {
+
+        assertEquals(Country.UNITED_STATES, INDEX.resolve("+12125551234"));
+        assertEquals(Country.CANADA, INDEX.resolve("+14165551234"));
+        assertEquals(Country.BAHAMAS, INDEX.resolve("+12425551234"));
+        assertEquals(Country.RUSSIA, INDEX.resolve("+79161234567"));
+        assertEquals(Country.KAZAKHSTAN, INDEX.resolve("+77012345678"));
+        assertEquals(Country.ABKHAZIA, INDEX.resolve("+78401234567"));
+    }
+
+    /**
+     * Test of resolve method, of class CountryPrefixIndex.
+     */
+    @Test
+    public void testResolveIsoCode() {
+
+        assertEquals(Country.TIMOR_LESTE, INDEX.resolve("+67077212345"));
+        assertEquals("TL", INDEX.resolve("+67077212345").toString());
+        assertEquals(Country.TONGA, INDEX.resolve("+6767712345"));
+        assertEquals("TO", INDEX.resolve("+6767712345").toString());
+        assertEquals(Country.TUNISIA, INDEX.resolve("21698123456"));
+        assertEquals("TN", INDEX.resolve("21698123456").toString());
+        assertEquals(Country.TURKMENISTAN, INDEX.resolve("+99365123456"));
+        assertEquals("TM", INDEX.resolve("+99365123456").toString());
+    }
+
+    /**
+     * Test of resolve method, of class CountryPrefixIndex.
+     */
+    @Test
+    public void testResolveUnknown() {
+
+        assertNull(INDEX.resolve(null));
+        assertNull(INDEX.resolve(""));
+        assertNull(INDEX.resolve("+0123456"));
+        assertNull(INDEX.resolve("+8081234567"));
+    }
+
+    /**
+     * Test of fromIsoCode method, of class Country.
+     */
+    @Test
+    public void testCountryFromIsoCode() {
+
+        assertEquals(Country.ESTONIA, Country.fromIsoCode("EE"));
+        assertEquals(Country.ESTONIA, Country.fromIsoCode("ee"));
+        assertEquals(Country.TIMOR_LESTE, Country.fromIsoCode("TL"));
+        assertEquals(Country.TONGA, Country.fromIsoCode("TO"));
+        assertEquals(Country.TUNISIA, Country.fromIsoCode("TN"));
+        assertEquals(Country.TURKMENISTAN, Country.fromIsoCode("TM"));
+        assertNull(Country.fromIsoCode("XX"));
+        assertNull(Country.fromIsoCode(null));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.exception.MessenteException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH throughput benchmark of GsmCodec with reused buffers.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=GsmCodecBenchmark
+ *
+ * @author Jaanus Rõõmus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsmCodecBenchmark {
+
+    private static final String TEXT = "Your order #12345 has been shipped and "
+            + "will arrive on Monday. Track it at example.com/t/12345 [ref: €20]";
+
+    private final GsmCodec codec = new GsmCodec();
+    private final ByteBuffer buffer = ByteBuffer.allocate(512);
+    private final ByteBuffer packed = ByteBuffer.allocate(512);
+    private final StringBuilder decoded = new StringBuilder(256);
+
+    private int septets;
+
+    @Setup
+    public void setUp() throws MessenteException {
+        septets = codec.encodeGsm7bit(TEXT, packed);
+        packed.flip();
+    }
+
+    @Benchmark
+    public int encodeGsm7bit() throws MessenteException {
+        buffer.clear();
+        return codec.encodeGsm7bit(TEXT, buffer);
+    }
+
+    @Benchmark
+    public int decodeGsm7bit() {
+        packed.rewind();
+        decoded.setLength(0);
+        return codec.decodeGsm7bit(packed, septets, 0, decoded);
+    }
+
+    @Benchmark
+    public int encodeUcs2() {
+        buffer.clear();
+        return codec.encodeUcs2(TEXT, buffer);
+    }
+
+    @Benchmark
+    public byte[] encodeUcs2GetBytes() {
+        return TEXT.getBytes(StandardCharsets.UTF_16BE);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.exception.MessenteException;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in GsmCodec class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class GsmCodecTest {
+
+    private final GsmCodec CODEC = new GsmCodec();
+    private final ByteBuffer BUFFER = ByteBuffer.allocate(512);
+
+    /**
+     * Test of encodeGsm7bit method, of class GsmCodec.
+     */
+    @Test
+    public void testEncodeGsm7bit() throws MessenteException {
+
+        int septets = CODEC.encodeGsm7bit("hellohello", BUFFER);
+        BUFFER.flip();
+
+        byte[] expected = {(byte) 0xE8, 0x32, (byte) 0x9B, (byte) 0xFD, 0x46,
+            (byte) 0x97, (byte) 0xD9, (byte) 0xEC, 0x37};
+        byte[] actual = new byte[BUFFER.remaining()];
+        BUFFER.get(actual);
+
+        assertEquals(10, septets);
+        assertArrayEquals(expected, actual);
+        assertEquals(9, CODEC.getPackedLength(septets, 0));
+    }
+
+    /**
+     * Test of decodeGsm7bit method, of class GsmCodec.
+     */
+    @Test
+    public void testGsm7bitRoundTrip() throws MessenteException {
+
+        String content = "Price: 5€ {all} [items] ~^| @£$¥ ÄÖÑÜ§¿äöñüà";
+        int padding = CODEC.getPaddingBits(6);
+
+        int septets = CODEC.encodeGsm7bit(content, 0, content.length(), BUFFER, padding);
+        assertEquals(CODEC.getPackedLength(septets, padding), BUFFER.position());
+        BUFFER.flip();
+
+        StringBuilder decoded = new StringBuilder();
+        CODEC.decodeGsm7bit(BUFFER, septets, padding, decoded);
+
+        assertEquals(1, padding);
+        assertEquals(new SmsLengthCalculator().getCharacterCount(content), septets);
+        assertEquals(content, decoded.toString());
+    }
+
+    /**
+     * Test of encodeGsm7bit method, of class GsmCodec.
+     */
+    @Test(expected = MessenteException.class)
+    public void testEncodeGsm7bitNonGsmCharacter() throws MessenteException {
+        CODEC.encodeGsm7bit("Õ", BUFFER);
+    }
+
+    /**
+     * Test of encodeUcs2 method, of class GsmCodec.
+     */
+    @Test
+    public void testUcs2RoundTrip() {
+
+        String content = "Tere, Õie! 😀";
+
+        assertEquals(content.length() * 2, CODEC.encodeUcs2(content, BUFFER));
+        BUFFER.flip();
+        assertEquals((byte) 0x00, BUFFER.get(0));
+        assertEquals((byte) 'T', BUFFER.get(1));
+
+        StringBuilder decoded = new StringBuilder();
+        CODEC.decodeUcs2(BUFFER, BUFFER.remaining(), decoded);
+
+        assertEquals(content, decoded.toString());
+    }
+
+}
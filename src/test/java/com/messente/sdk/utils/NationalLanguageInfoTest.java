@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.NationalLanguage;
+import com.messente.sdk.enums.SmsEncoding;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for SMS length analysis with national language shift tables.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class NationalLanguageInfoTest {
+
+    private final SmsLengthCalculator CALCULATOR = new SmsLengthCalculator();
+    private final String TURKISH = "Şişli'de buluşalım, saat 15:00'te. Görüşürüz!";
+    private final String SPANISH = "¿Cómo estás? Mañana a las 10.";
+    private final String HINDI = "नमस्ते, आप कैसे हैं?";
+    private final String TAMIL = "வணக்கம், எப்படி இருக்கிறீர்கள்?";
+    private final String URDU = "آپ کیسے ہیں؟";
+
+    /**
+     * Test of locking shift table lengths.
+     */
+    @Test
+    public void testLockingShiftTables() {
+        assertEquals(128, GsmNationalAlphabet.TURKISH_LOCKING.length());
+        assertEquals(128, GsmNationalAlphabet.PORTUGUESE_LOCKING.length());
+        assertEquals(GsmAlphabet.ESC, GsmNationalAlphabet.TURKISH_LOCKING.charAt(0x1B));
+        assertEquals(GsmAlphabet.ESC, GsmNationalAlphabet.PORTUGUESE_LOCKING.charAt(0x1B));
+
+        String[] indic = {GsmNationalAlphabet.BENGALI_LOCKING,
+            GsmNationalAlphabet.GUJARATI_LOCKING, GsmNationalAlphabet.HINDI_LOCKING,
+            GsmNationalAlphabet.KANNADA_LOCKING, GsmNationalAlphabet.MALAYALAM_LOCKING,
+            GsmNationalAlphabet.ORIYA_LOCKING, GsmNationalAlphabet.PUNJABI_LOCKING,
+            GsmNationalAlphabet.TAMIL_LOCKING, GsmNationalAlphabet.TELUGU_LOCKING,
+            GsmNationalAlphabet.URDU_LOCKING};
+
+        for (String table : indic) {
+            assertEquals(128, table.length());
+            assertEquals('\n', table.charAt(0x0A));
+            assertEquals('\r', table.charAt(0x0D));
+            assertEquals(GsmAlphabet.ESC, table.charAt(0x1B));
+            assertEquals(' ', table.charAt(0x20));
+            assertEquals('0', table.charAt(0x30));
+            assertEquals('?', table.charAt(0x3F));
+            assertEquals('a', table.charAt(0x61));
+            assertEquals('z', table.charAt(0x7A));
+        }
+        assertEquals('\u0915', GsmNationalAlphabet.HINDI_LOCKING.charAt(0x15));
+        assertEquals('\u0950', GsmNationalAlphabet.HINDI_LOCKING.charAt(0x60));
+    }
+
+    /**
+     * Test of single shift tables.
+     */
+    @Test
+    public void testSingleShiftTables() {
+        for (NationalLanguage language : NationalLanguage.values()) {
+            if (language.getId() >= NationalLanguage.BENGALI.getId()) {
+                assertTrue(GsmNationalAlphabet.hasLockingShift(language));
+                assertEquals(2, GsmNationalAlphabet.septets('A', language, language));
+                assertEquals(2, GsmNationalAlphabet.septets('€', language, language));
+                assertEquals(1, GsmNationalAlphabet.septets('a', language, language));
+                assertEquals(0, GsmNationalAlphabet.septets('é', language, language));
+            }
+            assertTrue(GsmNationalAlphabet.hasSingleShift(language));
+        }
+        assertEquals(2, GsmNationalAlphabet.septets('\u0964', null, NationalLanguage.TAMIL));
+        assertEquals(0, GsmNationalAlphabet.septets('\u0964', null, NationalLanguage.URDU));
+        assertEquals(2, GsmNationalAlphabet.septets('\u0966', null, NationalLanguage.HINDI));
+        assertEquals(0, GsmNationalAlphabet.septets('\u0966', null, NationalLanguage.BENGALI));
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeIndian() {
+
+        NationalLanguageInfo info = CALCULATOR.analyzeNationalLanguage(HINDI);
+        assertEquals(SmsEncoding.GSM_7BIT, info.getEncoding());
+        assertEquals(NationalLanguage.HINDI, info.getLockingShift());
+        assertNull(info.getSingleShift());
+        assertEquals(HINDI.length(), info.getCharacterCount());
+        assertEquals("03250106", info.getUdh());
+
+        info = CALCULATOR.analyzeNationalLanguage(TAMIL);
+        assertEquals(NationalLanguage.TAMIL, info.getLockingShift());
+        assertEquals(TAMIL.length(), info.getCharacterCount());
+
+        // Hindi digits need the Hindi single shift table
+        info = CALCULATOR.analyzeNationalLanguage(HINDI + " \u0967\u0968");
+        assertEquals(NationalLanguage.HINDI, info.getLockingShift());
+        assertEquals(NationalLanguage.HINDI, info.getSingleShift());
+        assertEquals(HINDI.length() + 1 + 4, info.getCharacterCount());
+
+        // Unicode would take 3 parts
+        StringBuilder b = new StringBuilder();
+        while (b.length() < 200) {
+            b.append(HINDI).append(' ');
+        }
+        assertEquals(SmsEncoding.UCS2, CALCULATOR.analyze(b).getEncoding());
+        info = CALCULATOR.analyzeNationalLanguage(b, NationalLanguage.HINDI);
+        assertEquals(NationalLanguage.HINDI, info.getLockingShift());
+        assertEquals(2, info.getPartCount());
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeUrdu() {
+
+        NationalLanguageInfo info = CALCULATOR.analyzeNationalLanguage(URDU);
+
+        assertEquals(SmsEncoding.GSM_7BIT, info.getEncoding());
+        assertEquals(NationalLanguage.URDU, info.getLockingShift());
+        assertEquals(NationalLanguage.URDU, info.getSingleShift());
+        assertEquals(URDU.length() + 1, info.getCharacterCount());
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeTurkish() {
+
+        NationalLanguageInfo info = CALCULATOR.analyzeNationalLanguage(TURKISH);
+
+        assertEquals(SmsEncoding.GSM_7BIT, info.getEncoding());
+        assertEquals(NationalLanguage.TURKISH, info.getLockingShift());
+        assertNull(info.getSingleShift());
+        assertEquals(TURKISH.length(), info.getCharacterCount());
+        assertEquals(1, info.getPartCount());
+        assertEquals("03250101", info.getUdh());
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeSpanish() {
+
+        NationalLanguageInfo info = CALCULATOR.analyzeNationalLanguage(SPANISH);
+
+        assertEquals(SmsEncoding.GSM_7BIT, info.getEncoding());
+        assertNull(info.getLockingShift());
+        assertEquals(NationalLanguage.SPANISH, info.getSingleShift());
+        assertEquals(SPANISH.length() + 2, info.getCharacterCount());
+        assertEquals("03240102", info.getUdh());
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeDefaultAndUnicode() {
+
+        NationalLanguageInfo info = CALCULATOR.analyzeNationalLanguage("Hello {world}");
+        assertNull(info.getLockingShift());
+        assertNull(info.getSingleShift());
+        assertNull(info.getUdh());
+        assertEquals(15, info.getCharacterCount());
+
+        info = CALCULATOR.analyzeNationalLanguage(TURKISH, NationalLanguage.SPANISH);
+        assertEquals(SmsEncoding.UCS2, info.getEncoding());
+        assertEquals(TURKISH.length(), info.getCharacterCount());
+    }
+
+    /**
+     * Test of analyzeNationalLanguage method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeMultipart() {
+
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 155; i++) {
+            b.append('ş');
+        }
+        assertEquals(1, CALCULATOR.analyzeNationalLanguage(b).getPartCount());
+
+        b.append('ş');
+        assertEquals(2, CALCULATOR.analyzeNationalLanguage(b).getPartCount());
+
+        for (int i = 0; i < 149 * 2 - 156; i++) {
+            b.append('ş');
+        }
+        assertEquals(2, CALCULATOR.analyzeNationalLanguage(b).getPartCount());
+        assertEquals(3, CALCULATOR.analyzeNationalLanguage(b.append('ş')).getPartCount());
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.PhoneNumberError;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in PhoneNumberNormalizer class.
+ *
+ * @author Lennar Kallas
+ */
+public class PhoneNumberNormalizerTest {
+
+    private final PhoneNumberNormalizer NORMALIZER;
+
+    public PhoneNumberNormalizerTest() {
+        this.NORMALIZER = new PhoneNumberNormalizer();
+    }
+
+    /**
+     * Test of normalize method, of class PhoneNumberNormalizer.
+     */
+    @Test
+    public void testNormalizeCanonical() {
+
+        String number = "+3725123456";
+        PhoneNumberNormalizer.Result result = NORMALIZER.normalize(number);
+
+        assertTrue(result.isValid());
+        assertSame(number, result.getNumber());
+    }
+
+    /**
+     * Test of normalize method, of class PhoneNumberNormalizer.
+     */
+    @Test
+    public void testNormalizeSeparators() {
+
+        assertEquals("+3725123456", NORMALIZER.normalize(" +372 (512) 34-56 ").getNumber());
+        assertEquals("+3725123456", NORMALIZER.normalize("372.512.3456").getNumber());
+        assertEquals("+3725123456", NORMALIZER.normalize("00372 5123456").getNumber());
+    }
+
+    /**
+     * Test of normalize method, of class PhoneNumberNormalizer.
+     */
+    @Test
+    public void testNormalizeErrors() {
+
+        assertEquals(PhoneNumberError.EMPTY, NORMALIZER.normalize(null).getError());
+        assertEquals(PhoneNumberError.EMPTY, NORMALIZER.normalize(" + ").getError());
+        assertEquals(PhoneNumberError.INVALID_CHARACTER, NORMALIZER.normalize("+372abc123").getError());
+        assertEquals(PhoneNumberError.INVALID_CHARACTER, NORMALIZER.normalize("372+5123456").getError());
+        assertEquals(PhoneNumberError.INVALID_COUNTRY_CODE, NORMALIZER.normalize("05123456").getError());
+        assertEquals(PhoneNumberError.INVALID_COUNTRY_CODE, NORMALIZER.normalize("+003725123456").getError());
+        assertEquals(PhoneNumberError.TOO_SHORT, NORMALIZER.normalize("+37251").getError());
+        assertEquals(PhoneNumberError.TOO_LONG, NORMALIZER.normalize("+3725123456789012").getError());
+        assertNull(NORMALIZER.normalize("+37251").getNumber());
+    }
+
+    /**
+     * Test of normalizeAll method, of class PhoneNumberNormalizer.
+     */
+    @Test
+    public void testNormalizeAll() {
+
+        List<PhoneNumberNormalizer.Result> results = NORMALIZER.normalizeAll(
+                Arrays.asList("+3725123456", "x", "372 5123457"));
+
+        assertEquals(3, results.size());
+        assertEquals("+3725123456", results.get(0).getNumber());
+        assertFalse(results.get(1).isValid());
+        assertEquals("+3725123457", results.get(2).getNumber());
+    }
+
+}
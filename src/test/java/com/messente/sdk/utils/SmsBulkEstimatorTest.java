@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in SmsBulkEstimator class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsBulkEstimatorTest {
+
+    private final SmsBulkEstimator ESTIMATOR = new SmsBulkEstimator();
+    private final SmsLengthCalculator SMS_CALCULATOR = new SmsLengthCalculator();
+
+    /**
+     * Test of estimate method, of class SmsBulkEstimator.
+     */
+    @Test
+    public void testEstimateMatchesCalculator() {
+
+        Random random = new Random(7);
+        String alphabet = "abcdef €[Õ";
+        List<String> contents = new ArrayList<>();
+        long[] messagesByParts = new long[16];
+        long gsmParts = 0;
+        long unicodeMessages = 0;
+
+        for (int i = 0; i < 20000; i++) {
+
+            StringBuilder b = new StringBuilder();
+            int length = random.nextInt(500);
+            for (int j = 0; j < length; j++) {
+                // Keep non-GSM characters rare, so both encodings are common
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                b.append(c == 'Õ' && random.nextInt(length) > 0 ? 'a' : c);
+            }
+
+            String content = b.toString();
+            int parts = SMS_CALCULATOR.getPartCount(content);
+            contents.add(content);
+            messagesByParts[parts]++;
+
+            if (SMS_CALCULATOR.getCharset(content) == 0) {
+                gsmParts += parts;
+            } else {
+                unicodeMessages++;
+            }
+        }
+
+        SmsPartHistogram histogram = ESTIMATOR.estimate(contents);
+
+        assertEquals(contents.size(), histogram.getMessageCount());
+        assertEquals(unicodeMessages, histogram.getMessageCount(SmsEncoding.UCS2));
+        assertEquals(gsmParts, histogram.getTotalParts(SmsEncoding.GSM_7BIT));
+        for (int parts = 0; parts < messagesByParts.length; parts++) {
+            assertEquals(messagesByParts[parts], histogram.getMessageCount(parts));
+        }
+    }
+
+    /**
+     * Test of estimate method, of class SmsBulkEstimator.
+     */
+    @Test
+    public void testEstimateStream() {
+
+        SmsPartHistogram histogram = ESTIMATOR.estimate(IntStream.range(0, 1000000)
+                .mapToObj(i -> "Hello, customer #" + i + "!"));
+
+        assertEquals(1000000, histogram.getMessageCount());
+        assertEquals(1000000, histogram.getTotalParts());
+        assertEquals(1, histogram.getMaxPartCount());
+        assertEquals(0, histogram.getMessageCount(SmsEncoding.UCS2));
+    }
+
+    /**
+     * Test of estimate method, of class SmsBulkEstimator.
+     */
+    @Test
+    public void testEstimateEmpty() {
+
+        SmsPartHistogram histogram = ESTIMATOR.estimate(new ArrayList<String>().spliterator());
+
+        assertEquals(0, histogram.getMessageCount());
+        assertEquals(0, histogram.getMaxPartCount());
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH comparison of the table driven SmsLengthCalculator against the former
+ * HashSet based character classification.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=SmsLengthCalculatorBenchmark
+ *
+ * @author Lennar Kallas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmsLengthCalculatorBenchmark {
+
+    @Param({"gsm", "gsmext", "unicode"})
+    public String charset;
+
+    private final SmsLengthCalculator calculator = new SmsLengthCalculator();
+    private final HashSetCalculator hashSetCalculator = new HashSetCalculator();
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        StringBuilder b = new StringBuilder();
+        while (b.length() < 300) {
+            b.append("Your order #12345 has been shipped and will arrive on Monday. ");
+        }
+
+        if ("gsmext".equals(charset)) {
+            b.append("[€]");
+        } else if ("unicode".equals(charset)) {
+            b.append('Õ');
+        }
+        text = b.toString();
+    }
+
+    @Benchmark
+    public int tableCharset() {
+        return calculator.getCharset(text);
+    }
+
+    @Benchmark
+    public int hashSetCharset() {
+        return hashSetCalculator.getCharset(text);
+    }
+
+    @Benchmark
+    public int tableCharacterCount() {
+        return calculator.getCharacterCount(text);
+    }
+
+    @Benchmark
+    public int hashSetCharacterCount() {
+        return hashSetCalculator.getCharacterCount(text);
+    }
+
+    /**
+     * Character classification as it was before lookup tables.
+     */
+    private static class HashSetCalculator {
+
+        private final Set<String> GSM7BIT = new HashSet<>(Arrays.asList(
+                new String[]{
+                    "@", "£", "$", "¥", "è", "é", "ù", "ì", "ò", "Ç", "\n", "Ø", "ø", "\r", "Å", "å",
+                    "Δ", "_", "Φ", "Γ", "Λ", "Ω", "Π", "Ψ", "Σ", "Θ", "Ξ", "\u001b", "Æ", "æ", "ß", "É",
+                    " ", "!", "'", "#", "¤", "%", "&", "\"", "(", ")", "*", "+", ",", "-", ".", "/",
+                    "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", ":", ";", "<", "=", ">", "?",
+                    "¡", "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M", "N", "O",
+                    "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z", "Ä", "Ö", "Ñ", "Ü", "§",
+                    "¿", "a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "l", "m", "n", "o",
+                    "p", "q", "r", "s", "t", "u", "v", "w", "x", "y", "z", "ä", "ö", "ñ", "ü", "à"
+                }
+        ));
+
+        private final Set<String> GSM7BITEXT = new HashSet<>(Arrays.asList(
+                new String[]{
+                    "\f", "^", "{", "}", "\\", "[", "~", "]", "|", "€"
+                }
+        ));
+
+        int getCharset(String content) {
+            for (int i = 0; i < content.length(); i++) {
+                if (!GSM7BIT.contains(Character.toString(content.charAt(i)))) {
+                    if (!GSM7BITEXT.contains(Character.toString(content.charAt(i)))) {
+                        return 2;
+                    }
+                }
+            }
+            return 0;
+        }
+
+        int getCharacterCount(String content) {
+            int chars = 0;
+            for (int i = 0; i < content.length(); i++) {
+                if (GSM7BIT.contains(content.charAt(i) + "")) {
+                    chars++;
+                } else if (GSM7BITEXT.contains(content.charAt(i) + "")) {
+                    chars += 2;
+                } else {
+                    chars = content.length();
+                    break;
+                }
+            }
+            return chars;
+        }
+    }
+}
@@ -15,6 +15,11 @@
  */
 package com.messente.sdk.utils;
 
+import com.messente.sdk.enums.SmsEncoding;
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.Random;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -191,4 +196,176 @@ public class SmsLengthCalculatorTest {
 
     }
 
+    /**
+     * Test of getCharacterCount method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testGetCharacterCountWholeAlphabet() {
+
+        assertEquals(128, GsmAlphabet.BASIC.length());
+        assertEquals(0, SMS_CALCULATOR.getCharset(GsmAlphabet.BASIC));
+        assertEquals(128, SMS_CALCULATOR.getCharacterCount(GsmAlphabet.BASIC));
+        assertEquals(20, SMS_CALCULATOR.getCharacterCount(GsmAlphabet.EXTENSION));
+        assertEquals(2, SMS_CALCULATOR.getCharset("\u20ac\u0100"));
+    }
+
+    /**
+     * Test of getPartCount method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testGetPartCountEscapeOnPartBoundaries() {
+
+        // Both extended characters would straddle a part boundary
+        String content = repeat('a', 152) + "€" + repeat('a', 150) + "€" + repeat('a', 152);
+
+        assertEquals(4, SMS_CALCULATOR.getPartCount(content));
+        assertEquals(2, SMS_CALCULATOR.getPartCount(repeat('a', 161)));
+        assertEquals(1, SMS_CALCULATOR.getPartCount(repeat('a', 158) + "€"));
+        assertEquals(2, SMS_CALCULATOR.getPartCount(repeat('a', 159) + "€"));
+        assertEquals(2, SMS_CALCULATOR.getPartCount(repeat('a', 306)));
+        assertEquals(3, SMS_CALCULATOR.getPartCount(repeat('a', 307)));
+    }
+
+    /**
+     * Test of analyze method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeGsm7bitExt() {
+
+        SmsLengthInfo info = SMS_CALCULATOR.analyze(new StringBuilder(GSM_7BITEXT_SMS));
+
+        assertEquals(SmsEncoding.GSM_7BIT, info.getEncoding());
+        assertEquals(88, info.getCharacterCount());
+        assertEquals(1, info.getPartCount());
+        assertEquals(72, info.getRemainingCharacters());
+        assertEquals("", info.getNonGsmCharacters());
+    }
+
+    /**
+     * Test of analyze method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeUnicode() {
+
+        SmsLengthInfo info = SMS_CALCULATOR.analyze(UNICODE_7BITEXT_SMS + " Õ ą");
+
+        assertEquals(SmsEncoding.UCS2, info.getEncoding());
+        assertEquals(97, info.getCharacterCount());
+        assertEquals(2, info.getPartCount());
+        assertEquals(37, info.getRemainingCharacters());
+        assertEquals("Õą", info.getNonGsmCharacters());
+    }
+
+    /**
+     * Test of analyze method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeMultipart() {
+
+        SmsLengthInfo info = SMS_CALCULATOR.analyze(repeat('a', 152) + "€" + repeat('a', 10));
+
+        assertEquals(164, info.getCharacterCount());
+        assertEquals(2, info.getPartCount());
+        assertEquals(141, info.getRemainingCharacters());
+    }
+
+    /**
+     * Test of getPartCount method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testGetPartCountSurrogatePairs() {
+
+        String emoji = "\ud83d\ude00";
+
+        // 66 units and a pair that doesn't fit into the first part
+        assertEquals(3, SMS_CALCULATOR.getPartCount(repeat('Õ', 66) + emoji + repeat('Õ', 66)));
+        assertEquals(2, SMS_CALCULATOR.getPartCount(repeat('Õ', 65) + emoji + repeat('Õ', 66)));
+        assertEquals(1, SMS_CALCULATOR.getPartCount(repeat('Õ', 68) + emoji));
+
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            b.append(emoji);
+        }
+        // 33 pairs per part
+        assertEquals(4, SMS_CALCULATOR.getPartCount(b.toString()));
+
+        SmsLengthInfo info = SMS_CALCULATOR.analyze(b);
+        assertEquals(200, info.getCharacterCount());
+        assertEquals(4, info.getPartCount());
+        assertEquals(65, info.getRemainingCharacters());
+    }
+
+    /**
+     * Test of fitToParts method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testFitToParts() throws MessenteException {
+
+        String emoji = "\ud83d\ude00";
+
+        assertEquals(GSM_7BIT_SMS, SMS_CALCULATOR.fitToParts(GSM_7BIT_SMS, 1, "..."));
+        assertEquals(repeat('a', 157) + "...", SMS_CALCULATOR.fitToParts(repeat('a', 200), 1, "..."));
+        assertEquals(repeat('a', 303) + "...", SMS_CALCULATOR.fitToParts(repeat('a', 400), 2, "..."));
+        assertEquals(repeat('a', 159), SMS_CALCULATOR.fitToParts(repeat('a', 159) + "€€", 1));
+        assertEquals("Õ" + repeat('a', 68),
+                SMS_CALCULATOR.fitToParts("Õ" + repeat('a', 68) + emoji + "b", 1));
+        // Cut before the non-GSM character leaves GSM 7-bit text
+        assertEquals(repeat('a', 160), SMS_CALCULATOR.fitToParts(repeat('a', 200) + "Õ", 1));
+        assertEquals(repeat('a', 69) + "…", SMS_CALCULATOR.fitToParts(repeat('a', 200), 1, "…"));
+    }
+
+    /**
+     * Test of fitToParts method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testFitToPartsMatchesPartCount() throws MessenteException {
+
+        Random random = new Random(3);
+        String alphabet = "abc €Õ\ud83d\ude00";
+
+        for (int i = 0; i < 300; i++) {
+
+            StringBuilder b = new StringBuilder();
+            int length = random.nextInt(600);
+            for (int j = 0; j < length; j++) {
+                b.append(alphabet.charAt(random.nextInt(alphabet.length() - 1)));
+                if (b.charAt(b.length() - 1) == '\ud83d') {
+                    b.append('\ude00');
+                }
+            }
+
+            String content = b.toString();
+            int maxParts = 1 + random.nextInt(4);
+            String ellipsis = random.nextBoolean() ? "..." : "";
+
+            String expected = content;
+            if (SMS_CALCULATOR.getPartCount(content) > maxParts) {
+                int cut = content.length();
+                while (cut > 0 && SmsLengthCalculator.isSurrogatePair(content, cut - 1)
+                        || SMS_CALCULATOR.getPartCount(content.substring(0, cut) + ellipsis) > maxParts) {
+                    cut--;
+                }
+                expected = content.substring(0, cut) + ellipsis;
+            }
+
+            assertEquals(expected, SMS_CALCULATOR.fitToParts(content, maxParts, ellipsis));
+        }
+    }
+
+    /**
+     * Test of fitToParts method, of class SmsLengthCalculator.
+     */
+    @Test(expected = MessenteException.class)
+    public void testFitToPartsInvalidPartCount() throws MessenteException {
+        SMS_CALCULATOR.fitToParts(GSM_7BIT_SMS, 0);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder b = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            b.append(c);
+        }
+        return b.toString();
+    }
+
 }
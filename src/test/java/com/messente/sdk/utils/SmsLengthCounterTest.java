@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in SmsLengthCounter class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsLengthCounterTest {
+
+    private final SmsLengthCalculator SMS_CALCULATOR = new SmsLengthCalculator();
+
+    /**
+     * Test of getEncoding method, of class SmsLengthCounter.
+     */
+    @Test
+    public void testEncodingFlipsBack() {
+
+        SmsLengthCounter counter = new SmsLengthCounter("Hello");
+        assertEquals(SmsEncoding.GSM_7BIT, counter.getEncoding());
+
+        counter.insert(5, " Õ");
+        assertEquals(SmsEncoding.UCS2, counter.getEncoding());
+        assertEquals(7, counter.getCharacterCount());
+
+        counter.replace(6, 7, "€");
+        assertEquals(SmsEncoding.GSM_7BIT, counter.getEncoding());
+        assertEquals(8, counter.getCharacterCount());
+        assertEquals("Hello €", counter.toString());
+
+        counter.delete(0, counter.length());
+        assertEquals(0, counter.getCharacterCount());
+        assertEquals(1, counter.getPartCount());
+    }
+
+    /**
+     * Test of getPartCount method, of class SmsLengthCounter.
+     */
+    @Test
+    public void testPartCountMatchesCalculator() {
+        assertRandomEditsMatchCalculator("abcdefgh €[]");
+        assertRandomEditsMatchCalculator("abcdefgh €[]Õ");
+        assertRandomEditsMatchCalculator("abcÕ\ud83d\ude00");
+    }
+
+    private void assertRandomEditsMatchCalculator(String alphabet) {
+
+        Random random = new Random(42);
+        SmsLengthCounter counter = new SmsLengthCounter();
+
+        for (int i = 0; i < 2000; i++) {
+
+            int length = counter.length();
+            int start = random.nextInt(length + 1);
+            int end = start + random.nextInt(Math.min(5, length - start) + 1);
+            String s = String.valueOf(alphabet.charAt(random.nextInt(alphabet.length())));
+
+            // Mostly grow text, occasionally delete or replace
+            switch (random.nextInt(8)) {
+                case 0:
+                    counter.delete(start, end);
+                    break;
+                case 1:
+                    counter.replace(start, end, s);
+                    break;
+                default:
+                    counter.insert(start, s + s);
+            }
+
+            String text = counter.toString();
+            assertEquals(SMS_CALCULATOR.getPartCount(text), counter.getPartCount());
+            assertEquals(SMS_CALCULATOR.getCharacterCount(text), counter.getCharacterCount());
+            assertEquals(SMS_CALCULATOR.getCharset(text), counter.getEncoding().getCharset());
+        }
+    }
+
+    /**
+     * Test of delete method, of class SmsLengthCounter.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDeleteInvalidRange() {
+        new SmsLengthCounter("abc").delete(2, 4);
+    }
+
+}
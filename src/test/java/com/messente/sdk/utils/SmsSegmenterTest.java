@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.SmsEncoding;
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in SmsSegmenter class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsSegmenterTest {
+
+    private final SmsSegmenter SEGMENTER = new SmsSegmenter();
+
+    /**
+     * Test of split method, of class SmsSegmenter.
+     */
+    @Test
+    public void testSplitSinglePart() throws MessenteException {
+
+        List<SmsSegment> segments = SEGMENTER.split("Hello!");
+
+        assertEquals(1, segments.size());
+        assertEquals("Hello!", segments.get(0).toString());
+        assertNull(segments.get(0).getUdh());
+    }
+
+    /**
+     * Test of split method, of class SmsSegmenter.
+     */
+    @Test
+    public void testSplitKeepsEscapePairs() throws MessenteException {
+
+        String content = repeat('a', 152) + "€" + repeat('b', 10);
+        List<SmsSegment> segments = SEGMENTER.split(content, 0xA7, false);
+
+        assertEquals(2, segments.size());
+        assertEquals(repeat('a', 152), segments.get(0).toString());
+        assertEquals("€" + repeat('b', 10), segments.get(1).toString());
+        assertEquals("050003A70201", segments.get(0).getUdh());
+        assertEquals("050003A70202", segments.get(1).getUdh());
+        assertEquals(SmsEncoding.GSM_7BIT, segments.get(1).getEncoding());
+    }
+
+    /**
+     * Test of split method, of class SmsSegmenter.
+     */
+    @Test
+    public void testSplitSixteenBitReference() throws MessenteException {
+
+        List<SmsSegment> segments = SEGMENTER.split(repeat('a', 200), 0xABCD, true);
+
+        assertEquals(2, segments.size());
+        assertEquals(152, segments.get(0).length());
+        assertEquals(48, segments.get(1).length());
+        assertEquals("060804ABCD0201", segments.get(0).getUdh());
+    }
+
+    /**
+     * Test of split method, of class SmsSegmenter.
+     */
+    @Test
+    public void testSplitKeepsSurrogatePairs() throws MessenteException {
+
+        String emoji = "😀";
+        String content = "Õ" + repeat('a', 65) + emoji + repeat('b', 10);
+        List<SmsSegment> segments = SEGMENTER.split(content, 1, false);
+
+        assertEquals(2, segments.size());
+        assertEquals(66, segments.get(0).getEnd());
+        assertEquals(emoji + repeat('b', 10), segments.get(1).toString());
+        assertEquals(SmsEncoding.UCS2, segments.get(0).getEncoding());
+    }
+
+    /**
+     * Test of split method, of class SmsSegmenter.
+     */
+    @Test(expected = MessenteException.class)
+    public void testSplitTooLong() throws MessenteException {
+        SEGMENTER.split(repeat('a', 153 * 256));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder b = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            b.append(c);
+        }
+        return b.toString();
+    }
+
+}
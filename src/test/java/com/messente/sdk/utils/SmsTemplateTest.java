@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.exception.MessenteException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in SmsTemplate class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsTemplateTest {
+
+    private final SmsLengthCalculator SMS_CALCULATOR = new SmsLengthCalculator();
+    private final String TEMPLATE = "Hi {{name}}, your code is {{ code }}. Bye {{name}}!";
+
+    /**
+     * Test of render method, of class SmsTemplate.
+     */
+    @Test
+    public void testRender() throws MessenteException {
+
+        SmsTemplate template = SmsTemplate.compile(TEMPLATE);
+        Map<String, String> values = new HashMap<>();
+        values.put("name", "Mari");
+        values.put("code", "1234");
+
+        assertEquals(Arrays.asList("name", "code"), template.getPlaceholders());
+        assertEquals("Hi Mari, your code is 1234. Bye Mari!", template.render(values));
+        assertEquals("Hi {{name}}, your code is {{code}}. Bye {{name}}!", template.toString());
+    }
+
+    /**
+     * Test of render method, of class SmsTemplate.
+     */
+    @Test
+    public void testRenderPartCountMatchesCalculator() throws MessenteException {
+
+        SmsTemplate template = SmsTemplate.compile("€ {{a}} [{{b}}] " + TEMPLATE);
+        Random random = new Random(11);
+        String alphabet = "abc €Õ\ud83d";
+        StringBuilder target = new StringBuilder("previous message");
+
+        for (int i = 0; i < 2000; i++) {
+
+            CharSequence[] values = new CharSequence[template.getPlaceholders().size()];
+            for (int v = 0; v < values.length; v++) {
+                StringBuilder value = new StringBuilder();
+                int length = random.nextInt(100);
+                for (int j = 0; j < length; j++) {
+                    // Non-GSM characters only in some of the messages
+                    char c = alphabet.charAt(random.nextInt(i % 3 == 0
+                            ? alphabet.length() : alphabet.length() - 2));
+                    value.append(c);
+                    if (c == '\ud83d') {
+                        value.append('\ude00');
+                    }
+                }
+                values[v] = value;
+            }
+
+            int start = target.length();
+            int parts = template.render(target, values);
+            String rendered = target.substring(start);
+
+            assertEquals(SMS_CALCULATOR.getPartCount(rendered), parts);
+            target.setLength(0);
+        }
+    }
+
+    /**
+     * Test of render method, of class SmsTemplate.
+     */
+    @Test(expected = MessenteException.class)
+    public void testRenderMissingValue() throws MessenteException {
+        SmsTemplate.compile(TEMPLATE).render(new HashMap<String, String>());
+    }
+
+    /**
+     * Test of compile method, of class SmsTemplate.
+     */
+    @Test(expected = MessenteException.class)
+    public void testCompileUnclosedPlaceholder() throws MessenteException {
+        SmsTemplate.compile("Hi {{name");
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Messente Communications Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.messente.sdk.utils;
+
+import com.messente.sdk.enums.Autoconvert;
+import com.messente.sdk.enums.SmsEncoding;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for public methods in SmsTransliterator class.
+ *
+ * @author Jaanus Rõõmus
+ */
+public class SmsTransliteratorTest {
+
+    private final SmsTransliterator TRANSLITERATOR = new SmsTransliterator();
+    private final String TEXT = "“Õun” – 5 €…";
+
+    /**
+     * Test of transliterate method, of class SmsTransliterator.
+     */
+    @Test
+    public void testTransliterateOn() {
+        assertEquals("\"Õun\" - 5 €...", TRANSLITERATOR.transliterate(TEXT, Autoconvert.ON));
+        assertEquals("\"Õun\" - 5 €...", TRANSLITERATOR.transliterate(TEXT, null));
+    }
+
+    /**
+     * Test of transliterate method, of class SmsTransliterator.
+     */
+    @Test
+    public void testTransliterateFull() {
+        assertEquals("\"Oun\" - 5 €...", TRANSLITERATOR.transliterate(TEXT, Autoconvert.FULL));
+        assertEquals("Zolc oe Lodz", TRANSLITERATOR.transliterate("Żółć œ Łódź", Autoconvert.FULL));
+        // Letters present in GSM charset are kept
+        assertEquals("Ä ö é ñ Ç", TRANSLITERATOR.transliterate("Ä ö é ñ Ç", Autoconvert.FULL));
+    }
+
+    /**
+     * Test of transliterate method, of class SmsTransliterator.
+     */
+    @Test
+    public void testTransliterateOff() {
+        assertEquals(TEXT, TRANSLITERATOR.transliterate(TEXT, Autoconvert.OFF));
+        assertFalse(TRANSLITERATOR.isConverted(TEXT, Autoconvert.OFF));
+        assertTrue(TRANSLITERATOR.isConverted(TEXT, Autoconvert.ON));
+    }
+
+    /**
+     * Test of transliterate method, of class SmsTransliterator.
+     */
+    @Test
+    public void testReplacementsAreGsm() {
+
+        SmsLengthCalculator calculator = new SmsLengthCalculator();
+
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            String s = String.valueOf(c);
+            String converted = TRANSLITERATOR.transliterate(s, Autoconvert.FULL);
+            if (!converted.equals(s)) {
+                assertEquals("U+" + Integer.toHexString(c), 0, calculator.getCharset(converted));
+            }
+        }
+    }
+
+    /**
+     * Test of analyze method, of class SmsLengthCalculator.
+     */
+    @Test
+    public void testAnalyzeWithAutoconvert() {
+
+        SmsLengthCalculator calculator = new SmsLengthCalculator();
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            b.append("“Tänan” – ");
+        }
+        String content = b.toString();
+
+        assertEquals(3, calculator.getPartCount(content, Autoconvert.OFF));
+        assertEquals(2, calculator.getPartCount(content, Autoconvert.ON));
+        assertEquals(SmsEncoding.GSM_7BIT, calculator.analyze(content, Autoconvert.ON).getEncoding());
+    }
+
+}